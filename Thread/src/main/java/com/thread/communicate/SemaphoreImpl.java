@@ -1,5 +1,6 @@
 package com.thread.communicate;
 
+import com.thread.contention.InstrumentedSemaphore;
 import lombok.AllArgsConstructor;
 
 import java.util.Queue;
@@ -15,8 +16,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 3. 소비가 완료될떄까지 기다린 후 소비가 완료되면 Consumer 스레드가 empty를 release하여 다시 생산
  */
 public class SemaphoreImpl {
-    Semaphore full = new Semaphore(0);
-    Semaphore empty = new Semaphore(5); // 공유 리소스 Queue의 값만큼 설정
+    Semaphore full = new InstrumentedSemaphore("SemaphoreImpl.full", 0);
+    Semaphore empty = new InstrumentedSemaphore("SemaphoreImpl.empty", 5); // 공유 리소스 Queue의 값만큼 설정
     Queue itemQueue = new LinkedBlockingDeque(5);
 
     private final AtomicInteger producedCount = new AtomicInteger(0);
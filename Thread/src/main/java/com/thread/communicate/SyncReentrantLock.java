@@ -1,5 +1,6 @@
 package com.thread.communicate;
 
+import com.thread.contention.InstrumentedLock;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.locks.Condition;
@@ -10,7 +11,7 @@ import java.util.concurrent.locks.ReentrantLock;
 class SyncReentrantLock {
     private String data;
     private boolean hasData = false;
-    private final Lock lock = new ReentrantLock();
+    private final Lock lock = new InstrumentedLock("SyncReentrantLock", new ReentrantLock());
     private final Condition condition = lock.newCondition();
 
     public void produce(String newData) throws InterruptedException {
@@ -0,0 +1,32 @@
+package com.thread.contention;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * ThreadApplication에서 ContentionRegistry의 지표를 JSON으로 보여주는 엔드포인트
+ * GET /contention : 등록된 모든 지표, GET /contention/{name} : 이름 1개 (없으면 404)
+ */
+@RestController
+@RequestMapping("/contention")
+public class ContentionController {
+
+    @GetMapping
+    public List<ContentionMetrics.Snapshot> getAll() {
+        return ContentionRegistry.snapshots();
+    }
+
+    @GetMapping("/{name}")
+    public ContentionMetrics.Snapshot get(@PathVariable String name) {
+        ContentionMetrics metrics = ContentionRegistry.find(name);
+        if (metrics == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "등록되지 않은 지표 : " + name);
+
+        return metrics.snapshot();
+    }
+}
@@ -0,0 +1,33 @@
+package com.thread.contention;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 경합으로 기다린 1건을 남기는 JFR 이벤트, 이벤트의 duration이 기다린 시간
+ * 짧은 대기까지 모두 남기면 기록량이 많아지므로 기본 임계값은 1ms (JFR 설정에서 변경 가능)
+ * @field waitStart : 대기 시작 시각(System.nanoTime), transient라 기록되지 않음
+ */
+@Name("com.thread.Contention")
+@Label("Contention Wait")
+@Description("Instrumented 동기화 도구에서 바로 획득하지 못하고 기다린 구간")
+@Category({"Thread", "Contention"})
+@Threshold("1 ms")
+@StackTrace(false)
+class ContentionEvent extends Event {
+    @Label("Primitive")
+    String primitive;
+
+    @Label("Queue Length")
+    int queueLength;
+
+    @Label("Acquired")
+    boolean acquired;
+
+    transient long waitStart;
+}
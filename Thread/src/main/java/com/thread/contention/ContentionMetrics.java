@@ -0,0 +1,87 @@
+package com.thread.contention;
+
+import com.thread.share.StreamingMetrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 동기화 도구 1개(이름 단위)의 경합 지표, Instrumented* 래퍼와 LockFreeStack이 기록함
+ * 경합 없이 바로 획득한 경우는 LongAdder 증가 1번만 하고, 시간 측정 / 대기열 길이 확인 / JFR 이벤트는 기다려야 했던 경우에만 함
+ * @field acquisitions : 획득(락 / 퍼밋) 또는 성공한 CAS 횟수
+ * @field contended : 그 중 바로 얻지 못하고 기다린 횟수
+ * @field casFailures : 실패한 CAS 횟수 (Lock-Free 자료구조)
+ * @field waiting : 지금 기다리고 있는 스레드 수
+ * @field maxQueueLength : 기다리기 시작할 때 본 대기열 길이 중 최대값
+ * @field waitTimes : 기다린 시간(나노초) 분포
+ */
+public class ContentionMetrics {
+    private final String name;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder casFailures = new LongAdder();
+    private final AtomicInteger waiting = new AtomicInteger(0);
+    private final LongAccumulator maxQueueLength = new LongAccumulator(Math::max, 0);
+    private final StreamingMetrics waitTimes = new StreamingMetrics();
+
+    ContentionMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordAcquisition() {
+        if (ContentionRegistry.ENABLED) acquisitions.increment();
+    }
+
+    public void recordCasFailure() {
+        if (ContentionRegistry.ENABLED) casFailures.increment();
+    }
+
+    /* 기다리기 직전에 호출, queueLength는 래핑한 도구가 보고하는 현재 대기열 길이 */
+    ContentionEvent beginWait(int queueLength) {
+        waiting.incrementAndGet();
+        maxQueueLength.accumulate(queueLength);
+
+        ContentionEvent event = new ContentionEvent();
+        event.queueLength = queueLength;
+        event.waitStart = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /* 기다림이 끝나면 호출, acquired가 false면(인터럽트 / 타임아웃) 대기 시간만 기록 */
+    void endWait(ContentionEvent event, boolean acquired) {
+        long waited = System.nanoTime() - event.waitStart;
+        waiting.decrementAndGet();
+        waitTimes.record(waited);
+
+        if (acquired) {
+            acquisitions.increment();
+            contended.increment();
+        }
+
+        if (event.shouldCommit()) {
+            event.primitive = name;
+            event.acquired = acquired;
+            event.commit();
+        }
+    }
+
+    public Snapshot snapshot() {
+        StreamingMetrics.Snapshot waits = waitTimes.snapshot();
+
+        return new Snapshot(name, acquisitions.sum(), contended.sum(), casFailures.sum(), waiting.get(),
+                maxQueueLength.get(), waits.getCount(), waits.getMean(), waits.valueAtPercentile(50),
+                waits.valueAtPercentile(99), waits.getMax());
+    }
+
+    /* 시간 단위는 모두 나노초 */
+    public record Snapshot(String name, long acquisitions, long contended, long casFailures, int waiting,
+                           long maxQueueLength, long waitCount, double waitMeanNanos, long waitP50Nanos,
+                           long waitP99Nanos, long waitMaxNanos) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.thread.contention;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름 -> ContentionMetrics 전역 저장소, 같은 이름으로 만든 도구들은 지표를 함께 씀
+ * contention.metrics 시스템 프로퍼티를 false로 주면 래퍼들이 위임만 하고 아무것도 기록하지 않음 (static final이라 분기도 JIT에서 사라짐)
+ * 클래스가 로드되면 ContentionSummaryEvent 주기 이벤트를 등록해, JFR 기록 중일 때만 1초마다 모든 지표의 누적값을 남김
+ */
+public final class ContentionRegistry {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("contention.metrics", "true"));
+
+    private static final Map<String, ContentionMetrics> METRICS = new ConcurrentHashMap<>();
+
+    static {
+        FlightRecorder.addPeriodicEvent(ContentionSummaryEvent.class, ContentionRegistry::emitSummaries);
+    }
+
+    private ContentionRegistry() {
+    }
+
+    public static ContentionMetrics metrics(String name) {
+        return METRICS.computeIfAbsent(name, ContentionMetrics::new);
+    }
+
+    /* 등록되지 않은 이름이면 null */
+    public static ContentionMetrics find(String name) {
+        return METRICS.get(name);
+    }
+
+    public static List<ContentionMetrics.Snapshot> snapshots() {
+        return METRICS.values().stream()
+                .map(ContentionMetrics::snapshot)
+                .sorted(Comparator.comparing(ContentionMetrics.Snapshot::name))
+                .toList();
+    }
+
+    private static void emitSummaries() {
+        for (ContentionMetrics.Snapshot snapshot : snapshots()) {
+            ContentionSummaryEvent event = new ContentionSummaryEvent();
+            event.primitive = snapshot.name();
+            event.acquisitions = snapshot.acquisitions();
+            event.contended = snapshot.contended();
+            event.casFailures = snapshot.casFailures();
+            event.waiting = snapshot.waiting();
+            event.maxQueueLength = snapshot.maxQueueLength();
+            event.waitP99 = snapshot.waitP99Nanos();
+            event.waitMax = snapshot.waitMaxNanos();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.thread.contention;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 등록된 ContentionMetrics마다 1초 간격으로 누적값을 남기는 JFR 주기 이벤트
+ * CAS 실패처럼 건별로 남기기엔 너무 잦은 지표는 이 이벤트로만 확인함
+ */
+@Name("com.thread.ContentionSummary")
+@Label("Contention Summary")
+@Description("동기화 도구별 누적 획득 / 경합 / CAS 실패 횟수와 대기 시간 백분위")
+@Category({"Thread", "Contention"})
+@Period("1 s")
+@StackTrace(false)
+class ContentionSummaryEvent extends Event {
+    @Label("Primitive")
+    String primitive;
+
+    @Label("Acquisitions")
+    long acquisitions;
+
+    @Label("Contended")
+    long contended;
+
+    @Label("CAS Failures")
+    long casFailures;
+
+    @Label("Waiting Threads")
+    int waiting;
+
+    @Label("Max Queue Length")
+    long maxQueueLength;
+
+    @Label("Wait P99")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitP99;
+
+    @Label("Wait Max")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitMax;
+}
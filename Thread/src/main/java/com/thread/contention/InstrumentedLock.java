@@ -0,0 +1,112 @@
+package com.thread.contention;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * 획득 횟수 / 대기 시간 / 대기열 길이를 ContentionMetrics에 기록하는 Lock 래퍼
+ * 먼저 tryLock()으로 바로 얻어보고, 실패했을 때만 시간을 재면서 원래 락의 lock()으로 기다림
+ * tryLock()은 대기 중인 스레드를 무시하고 끼어들기 때문에, 원래 lock()이 끼어들지 않는 락(fair 락, 쓰기 락이 기다리는 읽기 락)은
+ * 대기열이 있으면 빠른 경로를 건너뛰고 lock()에 맡겨 공정성 / 쓰기 락 기아 방지 정책이 그대로 적용되게 함
+ * @field shouldQueue : true면 빠른 경로를 쓰지 않음 (nonfair ReentrantLock / 쓰기 락은 항상 false)
+ * @field queueLength : 기다리기 시작할 때 읽을 원래 락의 대기열 길이
+ */
+public class InstrumentedLock implements Lock {
+    private final Lock delegate;
+    private final ContentionMetrics metrics;
+    private final BooleanSupplier shouldQueue;
+    private final IntSupplier queueLength;
+
+    public InstrumentedLock(String name, ReentrantLock delegate) {
+        this(delegate, ContentionRegistry.metrics(name),
+                delegate.isFair() ? delegate::hasQueuedThreads : () -> false, delegate::getQueueLength);
+    }
+
+    InstrumentedLock(Lock delegate, ContentionMetrics metrics, BooleanSupplier shouldQueue, IntSupplier queueLength) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.shouldQueue = shouldQueue;
+        this.queueLength = queueLength;
+    }
+
+    @Override
+    public void lock() {
+        if (!ContentionRegistry.ENABLED) {
+            delegate.lock();
+            return;
+        }
+
+        if (!shouldQueue.getAsBoolean() && delegate.tryLock()) {
+            metrics.recordAcquisition();
+            return;
+        }
+
+        ContentionEvent event = metrics.beginWait(queueLength.getAsInt());
+        delegate.lock();
+        metrics.endWait(event, true);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!ContentionRegistry.ENABLED) {
+            delegate.lockInterruptibly();
+            return;
+        }
+
+        if (!shouldQueue.getAsBoolean() && delegate.tryLock()) {
+            metrics.recordAcquisition();
+            return;
+        }
+
+        ContentionEvent event = metrics.beginWait(queueLength.getAsInt());
+        boolean acquired = false;
+        try {
+            delegate.lockInterruptibly();
+            acquired = true;
+        } finally {
+            metrics.endWait(event, acquired);
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        boolean acquired = delegate.tryLock();
+        if (acquired) metrics.recordAcquisition();
+
+        return acquired;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (!ContentionRegistry.ENABLED) return delegate.tryLock(time, unit);
+
+        if (!shouldQueue.getAsBoolean() && delegate.tryLock()) {
+            metrics.recordAcquisition();
+            return true;
+        }
+
+        ContentionEvent event = metrics.beginWait(queueLength.getAsInt());
+        boolean acquired = false;
+        try {
+            acquired = delegate.tryLock(time, unit);
+            return acquired;
+        } finally {
+            metrics.endWait(event, acquired);
+        }
+    }
+
+    @Override
+    public void unlock() {
+        delegate.unlock();
+    }
+
+    /* Condition의 await()는 락 경합이 아니라 조건 대기이므로 기록하지 않음 */
+    @Override
+    public Condition newCondition() {
+        return delegate.newCondition();
+    }
+}
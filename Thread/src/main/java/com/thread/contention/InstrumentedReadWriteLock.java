@@ -0,0 +1,36 @@
+package com.thread.contention;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ReentrantReadWriteLock의 읽기 / 쓰기 락을 각각 InstrumentedLock으로 감싼 ReadWriteLock
+ * 지표 이름은 name + ".read", name + ".write"로 나뉘고, 대기열 길이는 두 락이 공유하는 대기열 전체 길이
+ * 읽기 락의 lock()은 쓰기 락이 기다리고 있으면 끼어들지 않으므로, 대기열이 있으면 읽기 락의 빠른 경로(tryLock)를 쓰지 않음
+ */
+public class InstrumentedReadWriteLock implements ReadWriteLock {
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public InstrumentedReadWriteLock(String name) {
+        this(name, new ReentrantReadWriteLock());
+    }
+
+    public InstrumentedReadWriteLock(String name, ReentrantReadWriteLock delegate) {
+        this.readLock = new InstrumentedLock(delegate.readLock(), ContentionRegistry.metrics(name + ".read"),
+                delegate::hasQueuedThreads, delegate::getQueueLength);
+        this.writeLock = new InstrumentedLock(delegate.writeLock(), ContentionRegistry.metrics(name + ".write"),
+                delegate.isFair() ? delegate::hasQueuedThreads : () -> false, delegate::getQueueLength);
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+}
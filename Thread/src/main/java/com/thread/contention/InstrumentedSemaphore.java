@@ -0,0 +1,72 @@
+package com.thread.contention;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 퍼밋 획득 횟수 / 대기 시간 / 대기열 길이를 ContentionMetrics에 기록하는 Semaphore
+ * InstrumentedLock과 같이 tryAcquire()로 먼저 얻어보고, 실패했을 때만 시간을 재면서 기다림 (fair면 대기열이 있을 때 빠른 경로를 건너뜀)
+ * release()는 기다리지 않으므로 기록하지 않고, acquireUninterruptibly()와 퍼밋 개수를 받는 tryAcquire()는 그대로 위임함
+ */
+public class InstrumentedSemaphore extends Semaphore {
+    private final transient ContentionMetrics metrics;
+
+    public InstrumentedSemaphore(String name, int permits) {
+        super(permits);
+        this.metrics = ContentionRegistry.metrics(name);
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    @Override
+    public void acquire(int permits) throws InterruptedException {
+        if (!ContentionRegistry.ENABLED) {
+            super.acquire(permits);
+            return;
+        }
+
+        if (!(isFair() && hasQueuedThreads()) && super.tryAcquire(permits)) {
+            metrics.recordAcquisition();
+            return;
+        }
+
+        ContentionEvent event = metrics.beginWait(getQueueLength());
+        boolean acquired = false;
+        try {
+            super.acquire(permits);
+            acquired = true;
+        } finally {
+            metrics.endWait(event, acquired);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        boolean acquired = super.tryAcquire();
+        if (acquired) metrics.recordAcquisition();
+
+        return acquired;
+    }
+
+    @Override
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!ContentionRegistry.ENABLED) return super.tryAcquire(timeout, unit);
+
+        if (!(isFair() && hasQueuedThreads()) && super.tryAcquire(1)) {
+            metrics.recordAcquisition();
+            return true;
+        }
+
+        ContentionEvent event = metrics.beginWait(getQueueLength());
+        boolean acquired = false;
+        try {
+            acquired = super.tryAcquire(timeout, unit);
+            return acquired;
+        } finally {
+            metrics.endWait(event, acquired);
+        }
+    }
+}
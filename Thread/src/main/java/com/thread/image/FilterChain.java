@@ -0,0 +1,239 @@
+package com.thread.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 여러 PixelFilter / KernelFilter를 순서대로 적용하는 필터 체인
+ * build() 시점에 필터들을 Pass 단위로 묶어서 메모리 순회 횟수를 줄임
+ * - 연속된 PixelFilter는 andThen()으로 합쳐 하나의 점 필터가 됨
+ * - KernelFilter 앞의 PixelFilter는 행을 읽어올 때(pre), 뒤의 PixelFilter는 결과 행을 쓰기 직전에(post) 적용됨
+ * 따라서 [밝기 -> 블러 -> 임계값] 체인은 이미지 1회 순회, KernelFilter가 k개면 k회 순회로 끝남
+ * 각 Pass는 TiledImageTask의 공유 ForkJoinPool에서 타일 단위로 병렬 처리되고, 타일 안에서는 행 버퍼만 재사용함
+ */
+@Slf4j
+public class FilterChain {
+    private static final String SOURCE_IMG = "img/Flowers.jpg";
+
+    private final List<Pass> passes;
+
+    private FilterChain(List<Pass> passes) {
+        this.passes = passes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getPassCount() {
+        return passes.size();
+    }
+
+    /* original에 체인 전체를 적용해 result에 기록, Pass가 여러개면 중간 결과는 ARGB 이미지 2장을 번갈아 사용 */
+    public void apply(BufferedImage original, BufferedImage result) {
+        apply(original, result, TiledImageTask.DEFAULT_THRESHOLD);
+    }
+
+    public void apply(BufferedImage original, BufferedImage result, int threshold) {
+        PixelBuffer source = PixelBuffer.of(original);
+        PixelBuffer[] intermediates = new PixelBuffer[2];
+
+        for (int i = 0; i < passes.size(); i++) {
+            PixelBuffer target;
+
+            if (i == passes.size() - 1) {
+                target = PixelBuffer.of(result);
+            } else {
+                if (intermediates[i % 2] == null) {
+                    intermediates[i % 2] = PixelBuffer.of(new BufferedImage(
+                            original.getWidth(), original.getHeight(), BufferedImage.TYPE_INT_ARGB));
+                }
+                target = intermediates[i % 2];
+            }
+
+            TiledImageTask.run(passes.get(i), source, target, threshold);
+            source = target;
+        }
+    }
+
+    /* 밝기 -> 가우시안 블러 -> 임계값 체인을 융합 실행 / 필터별 개별 실행으로 비교 */
+    public static void main(String[] args) throws IOException {
+        Resource originalResource = new ClassPathResource(SOURCE_IMG);
+        BufferedImage originalImage = ImageIO.read(originalResource.getFile());
+        int width = originalImage.getWidth();
+        int height = originalImage.getHeight();
+
+        FilterChain fused = FilterChain.builder()
+                .then(PixelFilter.brightness(20))
+                .then(KernelFilter.gaussianBlur())
+                .then(PixelFilter.threshold(128))
+                .build();
+
+        List<FilterChain> separate = List.of(
+                FilterChain.builder().then(PixelFilter.brightness(20)).build(),
+                FilterChain.builder().then(KernelFilter.gaussianBlur()).build(),
+                FilterChain.builder().then(PixelFilter.threshold(128)).build()
+        );
+
+        BufferedImage fusedResult = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage separateResult = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage[] steps = {
+                new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB),
+                new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+        };
+
+        for (int round = 0; round < 10; round++) {
+            long fusedStart = System.nanoTime();
+            fused.apply(originalImage, fusedResult);
+            long fusedTime = System.nanoTime() - fusedStart;
+
+            long separateStart = System.nanoTime();
+            separate.get(0).apply(originalImage, steps[0]);
+            separate.get(1).apply(steps[0], steps[1]);
+            separate.get(2).apply(steps[1], separateResult);
+            long separateTime = System.nanoTime() - separateStart;
+
+            log.info("융합 체인({} Pass) : {}ms, 개별 실행(3 Pass) : {}ms",
+                    fused.getPassCount(), fusedTime / 1_000_000, separateTime / 1_000_000);
+        }
+    }
+
+    /**
+     * 이미지를 한번 순회하는 단위
+     * @field pre : 원본 행을 읽은 직후 적용할 점 필터 (kernel이 없으면 이것만 적용)
+     * @field kernel : 3x3 컨볼루션 필터, 없으면 null
+     * @field post : kernel 결과에 적용할 점 필터, 없으면 null
+     */
+    private static class Pass implements TiledImageTask.TileOperation {
+        private final PixelFilter pre;
+        private final KernelFilter kernel;
+        private final PixelFilter post;
+
+        Pass(PixelFilter pre, KernelFilter kernel, PixelFilter post) {
+            this.pre = pre;
+            this.kernel = kernel;
+            this.post = post;
+        }
+
+        @Override
+        public void process(PixelBuffer source, PixelBuffer target, int leftCorner, int topCorner, int width, int height) {
+            int right = Math.min(leftCorner + width, source.getWidth());
+            int bottom = Math.min(topCorner + height, source.getHeight());
+            int length = right - leftCorner;
+
+            if (length <= 0 || bottom <= topCorner) return;
+
+            if (kernel == null) {
+                processPoint(source, target, leftCorner, topCorner, bottom, length);
+            } else {
+                processKernel(source, target, leftCorner, topCorner, bottom, length);
+            }
+        }
+
+        /* 점 필터만 있는 Pass : 행을 읽어 필터를 적용하고 바로 기록, backing array에 alpha가 없으면(INT_RGB) readRow()로 채워서 읽음 */
+        private void processPoint(PixelBuffer source, PixelBuffer target, int left, int top, int bottom, int length) {
+            int[] row = new int[length];
+
+            for (int y = top; y < bottom; y++) {
+                if (source.isDirect() && source.readAlpha() == 0) {
+                    pre.applyRow(source.data(), source.index(left, y), row, 0, length);
+                } else {
+                    source.readRow(left, y, length, row, 0);
+                    pre.applyRow(row, 0, row, 0, length);
+                }
+
+                target.writeRow(left, y, length, row, 0);
+            }
+        }
+
+        /* 컨볼루션 Pass : 위/가운데/아래 세 행 버퍼를 돌려가며 사용해서 원본의 각 행을 한번씩만 읽음 */
+        private void processKernel(PixelBuffer source, PixelBuffer target, int left, int top, int bottom, int length) {
+            int[] above = new int[length + 2];
+            int[] center = new int[length + 2];
+            int[] below = new int[length + 2];
+            int[] output = new int[length];
+            int lastRow = source.getHeight() - 1;
+
+            loadRow(source, left, Math.max(top - 1, 0), length, above);
+            loadRow(source, left, top, length, center);
+
+            for (int y = top; y < bottom; y++) {
+                loadRow(source, left, Math.min(y + 1, lastRow), length, below);
+
+                kernel.applyRow(above, center, below, output, 0, length);
+                if (post != null) post.applyRow(output, 0, output, 0, length);
+                target.writeRow(left, y, length, output, 0);
+
+                int[] recycled = above;
+                above = center;
+                center = below;
+                below = recycled;
+            }
+        }
+
+        /* y행의 left-1 ~ left+length 픽셀을 읽어 pre 필터까지 적용, 이미지 밖의 좌우 픽셀은 가장자리 픽셀로 채움 */
+        private void loadRow(PixelBuffer source, int left, int y, int length, int[] row) {
+            source.readRow(left, y, length, row, 1);
+
+            if (left > 0) source.readRow(left - 1, y, 1, row, 0);
+            else row[0] = row[1];
+
+            if (left + length < source.getWidth()) source.readRow(left + length, y, 1, row, length + 1);
+            else row[length + 1] = row[length];
+
+            if (pre != null) pre.applyRow(row, 0, row, 0, length + 2);
+        }
+    }
+
+    /* 필터를 순서대로 추가하고 build() 시점에 Pass 단위로 융합 */
+    public static class Builder {
+        private final List<Object> filters = new ArrayList<>();
+
+        public Builder then(PixelFilter filter) {
+            filters.add(filter);
+            return this;
+        }
+
+        public Builder then(KernelFilter filter) {
+            filters.add(filter);
+            return this;
+        }
+
+        public FilterChain build() {
+            List<Pass> passes = new ArrayList<>();
+            PixelFilter pre = null; // 첫 KernelFilter 앞의 점 필터
+            PixelFilter pending = null; // 아직 Pass에 들어가지 않은 연속된 점 필터의 합성
+            KernelFilter kernel = null;
+
+            for (Object filter : filters) {
+                if (filter instanceof PixelFilter pixelFilter) {
+                    pending = pending == null ? pixelFilter : pending.andThen(pixelFilter);
+                } else if (kernel == null) {
+                    // 첫 KernelFilter : 지금까지의 점 필터는 원본 행을 읽을 때 적용
+                    pre = pending;
+                    pending = null;
+                    kernel = (KernelFilter) filter;
+                } else {
+                    // 이전 KernelFilter의 Pass 확정, 두 KernelFilter 사이의 점 필터는 이전 Pass의 post가 됨
+                    passes.add(new Pass(passes.isEmpty() ? pre : null, kernel, pending));
+                    pending = null;
+                    kernel = (KernelFilter) filter;
+                }
+            }
+
+            if (kernel != null) passes.add(new Pass(passes.isEmpty() ? pre : null, kernel, pending));
+            else if (pending != null) passes.add(new Pass(pending, null, null));
+
+            if (passes.isEmpty()) throw new IllegalStateException("FilterChain에 필터가 없음");
+
+            return new FilterChain(passes);
+        }
+    }
+}
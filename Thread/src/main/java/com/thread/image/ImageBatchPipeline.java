@@ -0,0 +1,290 @@
+package com.thread.image;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 디렉토리 단위 이미지 일괄 처리 파이프라인 (Decode -> Recolor -> Encode)
+ * 각 단계는 자신만의 스레드 풀을 가지고, 단계 사이는 크기가 제한된 BlockingQueue로 연결되어 I/O와 CPU 작업이 겹쳐서 실행됨
+ * Encoder가 느려지면 encodeQueue가 가득 차서 Recolor 스레드가 put()에서 블럭되고, 연쇄적으로 Decoder도 블럭되기 때문에 (Backpressure)
+ * 메모리에 올라가는 이미지 수는 최대 (스레드 수 합계 + 큐 용량 합계)개로 제한됨
+ * Recolor 단계는 TiledImageTask의 공유 ForkJoinPool을 사용하므로 여러 이미지를 동시에 색칠해도 CPU 스레드 수는 늘어나지 않음
+ * 이미지 1개의 처리가 실패하면 로그만 남기고 다음 이미지로 넘어감 (실패한 이미지는 처리 수에 포함하지 않음)
+ * 출력 파일 이름은 "Purple-" + 원본 파일 이름 + ".png" (a.jpg와 a.png가 서로 덮어쓰지 않도록 원본 확장자를 유지)
+ *
+ * 실행 인자 : <입력 디렉토리> <출력 디렉토리> [decode 스레드 수] [recolor 스레드 수] [encode 스레드 수] [큐 용량]
+ */
+@Slf4j
+public class ImageBatchPipeline {
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "bmp", "gif");
+    private static final ImageJob POISON_PILL = new ImageJob(null, null);
+    private static final ImageJob FAILED = new ImageJob(null, null);
+
+    private final Path outputDirectory;
+    private final int decodeThreads;
+    private final int recolorThreads;
+    private final int encodeThreads;
+
+    private final ConcurrentLinkedQueue<Path> pathQueue = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<ImageJob> decodedQueue;
+    private final BlockingQueue<ImageJob> encodeQueue;
+
+    private final StageMetrics decodeMetrics = new StageMetrics("Decode");
+    private final StageMetrics recolorMetrics = new StageMetrics("Recolor");
+    private final StageMetrics encodeMetrics = new StageMetrics("Encode");
+
+    public ImageBatchPipeline(Path outputDirectory, int decodeThreads, int recolorThreads, int encodeThreads, int queueCapacity) {
+        this.outputDirectory = outputDirectory;
+        this.decodeThreads = decodeThreads;
+        this.recolorThreads = recolorThreads;
+        this.encodeThreads = encodeThreads;
+        this.decodedQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.encodeQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            log.error("사용법 : ImageBatchPipeline <입력 디렉토리> <출력 디렉토리> [decode] [recolor] [encode] [queueCapacity]");
+            return;
+        }
+
+        Path inputDirectory = Paths.get(args[0]);
+        Path outputDirectory = Paths.get(args[1]);
+        int decodeThreads = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int recolorThreads = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int encodeThreads = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        int queueCapacity = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+
+        List<Path> images;
+        try (Stream<Path> files = Files.list(inputDirectory)) {
+            images = files.filter(ImageBatchPipeline::isImage).sorted().toList();
+        }
+
+        Files.createDirectories(outputDirectory);
+
+        ImageBatchPipeline pipeline = new ImageBatchPipeline(outputDirectory, decodeThreads, recolorThreads, encodeThreads, queueCapacity);
+        pipeline.run(images);
+    }
+
+    /* 모든 이미지를 처리할 때까지 블럭, 1초마다 단계별 처리량과 큐 깊이를 출력 */
+    public void run(List<Path> images) throws InterruptedException {
+        pathQueue.addAll(images);
+
+        ExecutorService decodePool = Executors.newFixedThreadPool(decodeThreads);
+        ExecutorService recolorPool = Executors.newFixedThreadPool(recolorThreads);
+        ExecutorService encodePool = Executors.newFixedThreadPool(encodeThreads);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+
+        CountDownLatch decodeDone = new CountDownLatch(decodeThreads);
+        CountDownLatch recolorDone = new CountDownLatch(recolorThreads);
+        CountDownLatch encodeDone = new CountDownLatch(encodeThreads);
+
+        long startTime = System.nanoTime();
+        reporter.scheduleAtFixedRate(this::report, 1, 1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < encodeThreads; i++) {
+            encodePool.submit(() -> runStage(encodeQueue, null, encodeMetrics, this::encode, encodeDone));
+        }
+
+        for (int i = 0; i < recolorThreads; i++) {
+            recolorPool.submit(() -> runStage(decodedQueue, encodeQueue, recolorMetrics, this::recolor, recolorDone));
+        }
+
+        for (int i = 0; i < decodeThreads; i++) {
+            decodePool.submit(() -> decodeLoop(decodeDone));
+        }
+
+        // 앞 단계가 모두 끝나면 다음 단계의 스레드 수만큼 Poison Pill을 넣어 종료시킴
+        decodeDone.await();
+        for (int i = 0; i < recolorThreads; i++) decodedQueue.put(POISON_PILL);
+
+        recolorDone.await();
+        for (int i = 0; i < encodeThreads; i++) encodeQueue.put(POISON_PILL);
+
+        encodeDone.await();
+
+        reporter.shutdown();
+        decodePool.shutdown();
+        recolorPool.shutdown();
+        encodePool.shutdown();
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        log.info("총 {}개 이미지 처리 완료 : {}s, {} images/s", encodeMetrics.processed.sum(),
+                String.format("%.2f", seconds), String.format("%.2f", encodeMetrics.processed.sum() / seconds));
+        decodeMetrics.logSummary();
+        recolorMetrics.logSummary();
+        encodeMetrics.logSummary();
+    }
+
+    /* Decode 단계 : 남은 경로가 없을 때까지 이미지를 읽어 decodedQueue에 넣음 (큐가 가득 차면 블럭) */
+    private void decodeLoop(CountDownLatch done) {
+        try {
+            Path path;
+            while ((path = pathQueue.poll()) != null) {
+                long start = System.nanoTime();
+                BufferedImage image;
+
+                try {
+                    image = ImageIO.read(path.toFile());
+                } catch (Throwable e) { // 큰 이미지의 OutOfMemoryError도 이 이미지만 건너뛰고 워커는 살려둠
+                    log.error("Decode 실패 : {} - {}", path, e.toString());
+                    continue;
+                }
+
+                if (image == null) {
+                    log.warn("이미지로 읽을 수 없는 파일 : {}", path);
+                    continue;
+                }
+
+                decodeMetrics.record(System.nanoTime() - start);
+
+                decodedQueue.put(new ImageJob(path, image));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+        }
+    }
+
+    /* Recolor / Encode 단계 공용 루프 : Poison Pill을 받을 때까지 input에서 꺼내 처리 후 output으로 전달 (FAILED를 반환하면 기록하지 않고 버림) */
+    private void runStage(BlockingQueue<ImageJob> input,
+                          BlockingQueue<ImageJob> output,
+                          StageMetrics metrics,
+                          StageFunction function,
+                          CountDownLatch done) {
+        try {
+            while (true) {
+                ImageJob job = input.take();
+                if (job == POISON_PILL) break;
+
+                long start = System.nanoTime();
+                ImageJob next;
+
+                // 예외가 스레드 밖으로 나가면 submit()의 Future에 묻혀서 워커만 조용히 죽고, 앞 단계가 put()에서 영원히 블럭됨
+                // OutOfMemoryError 같은 Error도 마찬가지이므로 Throwable을 잡고 이 이미지만 버림
+                try {
+                    next = function.apply(job);
+                } catch (Throwable e) {
+                    log.error("{} 실패 : {} - {}", metrics.name, job.path, e.toString());
+                    continue;
+                }
+
+                if (next == FAILED) continue;
+                metrics.record(System.nanoTime() - start);
+
+                if (output != null) output.put(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+        }
+    }
+
+    private ImageJob recolor(ImageJob job) {
+        BufferedImage original = job.image;
+        BufferedImage result = new BufferedImage(original.getWidth(), original.getHeight(), BufferedImage.TYPE_INT_RGB);
+
+        TiledImageTask.recolor(original, result);
+
+        return new ImageJob(job.path, result);
+    }
+
+    private ImageJob encode(ImageJob job) {
+        Path outputPath = outputDirectory.resolve("Purple-" + job.path.getFileName() + ".png");
+
+        try {
+            if (!ImageIO.write(job.image, "png", outputPath.toFile())) {
+                log.error("Encode 실패 : {} - png Writer를 찾을 수 없음", outputPath);
+                return FAILED;
+            }
+        } catch (IOException e) {
+            log.error("Encode 실패 : {} - {}", outputPath, e.getMessage());
+            return FAILED;
+        }
+
+        return job;
+    }
+
+    private void report() {
+        log.info("{} | {} | {} | decodedQueue={} encodeQueue={}",
+                decodeMetrics.tick(), recolorMetrics.tick(), encodeMetrics.tick(),
+                decodedQueue.size(), encodeQueue.size());
+    }
+
+    private static boolean isImage(Path path) {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+
+        return Files.isRegularFile(path)
+                && dot > 0
+                && IMAGE_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    @FunctionalInterface
+    private interface StageFunction {
+        ImageJob apply(ImageJob job);
+    }
+
+    /* 파이프라인 단계 사이를 이동하는 작업 단위 */
+    private record ImageJob(Path path, BufferedImage image) {
+    }
+
+    /**
+     * 단계별 처리량 측정
+     * @field processed : 처리한 이미지 수
+     * @field busyNanos : 실제 작업에 사용한 시간의 합 (큐에서 대기한 시간 제외)
+     * @field lastProcessed : 직전 report() 시점의 processed, 초당 처리량 계산용 (reporter 스레드만 접근)
+     */
+    private static class StageMetrics {
+        private final String name;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private long lastProcessed = 0;
+
+        StageMetrics(String name) {
+            this.name = name;
+        }
+
+        void record(long elapsedNanos) {
+            processed.increment();
+            busyNanos.add(elapsedNanos);
+        }
+
+        /* 직전 호출 이후의 초당 처리량 */
+        String tick() {
+            long current = processed.sum();
+            long perSecond = current - lastProcessed;
+            lastProcessed = current;
+
+            return name + " " + perSecond + "/s (total " + current + ")";
+        }
+
+        void logSummary() {
+            long count = processed.sum();
+            long averageMillis = count == 0 ? 0 : busyNanos.sum() / count / 1_000_000;
+
+            log.info("[{}] 처리 수 : {}, 평균 처리 시간 : {}ms", name, count, averageMillis);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.List;
 public class ImageProcessing {
     public static final String SOURCE_IMG = "img/Flowers.png";
     public static final String DESTINATION_IMG = "Thread/src/main/resources/img/Purple-Flowers.png";
+    private static final boolean VECTOR_KERNEL = selectVectorKernel();
 
     public static void main(String[] args) throws IOException {
         Resource originalResource = new ClassPathResource(SOURCE_IMG);
@@ -25,9 +26,16 @@ public class ImageProcessing {
                 BufferedImage.TYPE_INT_RGB // Color Space
         );
 
+        RecolorMode mode = args.length > 0 ? RecolorMode.valueOf(args[0].toUpperCase()) : RecolorMode.MULTI;
+
         long startTime = System.currentTimeMillis();
 
-        recolorMultiThread(originalImage, resultImage, 3);
+        switch (mode) {
+            case SINGLE -> recolorSingleThread(originalImage, resultImage);
+            case MULTI -> recolorMultiThread(originalImage, resultImage, 3);
+            case BULK -> recolorBulk(originalImage, resultImage);
+            case TILED -> TiledImageTask.recolor(originalImage, resultImage);
+        }
 
         long endTime = System.currentTimeMillis();
 
@@ -37,13 +45,27 @@ public class ImageProcessing {
         outputResult.getParentFile().mkdirs();
         ImageIO.write(resultImage, "png", outputResult); // 파일 Write
 
-        log.info("총 작업에 걸린 시간 : {}", duration);
+        log.info("[{}] 총 작업에 걸린 시간 : {}", mode, duration);
+    }
+
+    /**
+     * 색칠 방식
+     * SINGLE : 단일 스레드, 픽셀 단위 getRGB/setRGB
+     * MULTI : 가로 띠(Strip) 단위 멀티 스레드, 픽셀 단위 getRGB/setRGB
+     * BULK : 단일 스레드, DataBufferInt / Scanline 버퍼 단위 일괄 처리
+     * TILED : 공유 ForkJoinPool에서 사각형 타일 단위 Work-Stealing, BULK와 같은 일괄 처리
+     */
+    public enum RecolorMode {
+        SINGLE, MULTI, BULK, TILED
     }
 
     /* 원본, 결과 이미지 픽셀의 x,y 좌표를 표현하는 BufferedImage 객체를 가짐 */
     public static void recolorPixel(BufferedImage original, BufferedImage result, int x, int y) {
-        int originalRGB = original.getRGB(x, y);
+        setRGB(result, x, y, recolorRGB(original.getRGB(x, y)));
+    }
 
+    /* 원본 픽셀의 RGB 값을 받아 새로 색칠한 RGB 값을 반환 */
+    public static int recolorRGB(int originalRGB) {
         int red = getRed(originalRGB);
         int green = getGreen(originalRGB);
         int blue = getBlue(originalRGB);
@@ -63,8 +85,27 @@ public class ImageProcessing {
             newBlue = blue;
         }
 
-        int resultRGB = createRGBFromColors(newRed, newGreen, newBlue);
-        setRGB(result, x, y, resultRGB);
+        return createRGBFromColors(newRed, newGreen, newBlue);
+    }
+
+    /**
+     * src의 픽셀 length개를 색칠해 dst에 기록하는 행 단위 커널, src와 dst가 같은 배열이어도 됨
+     * -Dimage.recolor.vector=true 이고 Vector API를 사용할 수 있으면 벡터 커널, 아니면 스칼라 커널을 사용
+     * @param writeMask : 결과 이미지에 alpha 채널이 없으면 0x00FFFFFF (setRGB()와 같은 값을 쓰기 위함)
+     */
+    public static void recolorRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length, int writeMask) {
+        if (VECTOR_KERNEL) {
+            VectorRecolorKernel.recolorRow(src, srcOffset, dst, dstOffset, length, writeMask);
+        } else {
+            recolorRowScalar(src, srcOffset, dst, dstOffset, length, writeMask);
+        }
+    }
+
+    /* 스칼라 행 단위 커널, 루프 안에서 객체 할당이나 메서드 디스패치 없이 int 배열만 다룸 */
+    public static void recolorRowScalar(int[] src, int srcOffset, int[] dst, int dstOffset, int length, int writeMask) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = recolorRGB(src[srcOffset + i]) & writeMask;
+        }
     }
 
     /* BufferedImage에 rgb를 설정 */
@@ -91,6 +132,59 @@ public class ImageProcessing {
         recolorImage(original, result, 0, 0, original.getWidth(), original.getHeight());
     }
 
+    /* 전체 이미지를 픽셀 단위 getRGB/setRGB 대신 Raster의 int 배열 단위로 단일 스레드 색칠 */
+    public static void recolorBulk(BufferedImage original, BufferedImage result) {
+        PixelBuffer source = PixelBuffer.of(original);
+        PixelBuffer target = PixelBuffer.of(result);
+
+        recolorRegion(source, target, 0, 0, original.getWidth(), original.getHeight(), new int[original.getWidth()]);
+    }
+
+    /**
+     * 지정된 영역을 행 단위로 색칠
+     * 원본/결과 이미지 모두 DataBufferInt 기반이면 backing array끼리 바로 처리하고,
+     * 아니면 rowBuffer에 한 행씩 읽고/쓰기 때문에 루프 안에서 할당이 발생하지 않음
+     * @param rowBuffer : 최소 width 길이의 재사용 버퍼
+     */
+    public static void recolorRegion(PixelBuffer source,
+                                     PixelBuffer target,
+                                     int leftCorner,
+                                     int topCorner,
+                                     int width,
+                                     int height,
+                                     int[] rowBuffer) {
+        int right = Math.min(leftCorner + width, source.getWidth());
+        int bottom = Math.min(topCorner + height, source.getHeight());
+        int length = right - leftCorner;
+
+        if (length <= 0) return;
+
+        for (int y = topCorner; y < bottom; y++) {
+            int[] src = rowBuffer;
+            int srcOffset = 0;
+            int[] dst = rowBuffer;
+            int dstOffset = 0;
+
+            if (source.isDirect()) {
+                src = source.data();
+                srcOffset = source.index(leftCorner, y);
+            } else {
+                source.readRow(leftCorner, y, length, rowBuffer, 0);
+            }
+
+            if (target.isDirect()) {
+                dst = target.data();
+                dstOffset = target.index(leftCorner, y);
+            }
+
+            recolorRow(src, srcOffset, dst, dstOffset, length, target.writeMask());
+
+            if (!target.isDirect()) {
+                target.writeRow(leftCorner, y, length, rowBuffer, 0);
+            }
+        }
+    }
+
     /* 멀티 스레딩 처리 */
     public static void recolorMultiThread(BufferedImage original, BufferedImage result, int numberOfThreads) {
         List<Thread> threadList = new ArrayList<>();
@@ -99,12 +193,14 @@ public class ImageProcessing {
 
         for (int i = 0; i < numberOfThreads; i++) {
             final int threadMultiplier = i;
+            // 높이가 스레드 수로 나누어 떨어지지 않으면 남는 아래쪽 행은 마지막 스레드가 처리
+            final int stripHeight = i == numberOfThreads - 1 ? original.getHeight() - height * i : height;
 
             Thread thread = new Thread(() -> {
                 int leftCorner = 0;
                 int topCorner = height * threadMultiplier;
 
-                recolorImage(original, result, leftCorner, topCorner, width, height);
+                recolorImage(original, result, leftCorner, topCorner, width, stripHeight);
             });
 
             threadList.add(thread);
@@ -125,6 +221,18 @@ public class ImageProcessing {
 
     /* ========== Utils ========== */
 
+    /* Vector API 모듈(jdk.incubator.vector)이 로드되지 않았으면 LinkageError가 발생하므로 스칼라 커널로 대체 */
+    private static boolean selectVectorKernel() {
+        if (!Boolean.getBoolean("image.recolor.vector")) return false;
+
+        try {
+            return VectorRecolorKernel.isAvailable();
+        } catch (LinkageError e) {
+            log.warn("Vector API를 사용할 수 없어 스칼라 커널로 대체 : {}", e.toString());
+            return false;
+        }
+    }
+
     /* 픽셀의 특정 색상 값을 취하고 픽셀에 넣을 회색을 결정 */
     /* 빨강, 초록, 파랑 성분 간의 차이를 절대값으로 계산하고, 각 차이가 30 이하인지 확인 */
     public static boolean isShadeOfGray(int red, int green, int blue) {
@@ -0,0 +1,68 @@
+package com.thread.image;
+
+/**
+ * 3x3 컨볼루션 필터, 주변 8개 픽셀이 필요하기 때문에 PixelFilter와 달리 결과를 원본에 바로 덮어쓸 수 없음
+ * 각 채널마다 (가중치 합 / divisor + bias)를 0 ~ 255로 제한해서 기록하고, alpha는 가운데 픽셀의 값을 유지
+ * 이미지 가장자리는 바깥 픽셀 대신 가장 가까운 가장자리 픽셀을 사용함 (Clamp)
+ * @field weights : 왼쪽 위부터 행 순서로 나열한 9개의 가중치
+ */
+public class KernelFilter {
+    private final int[] weights;
+    private final int divisor;
+    private final int bias;
+
+    public KernelFilter(int[] weights, int divisor, int bias) {
+        if (weights.length != 9) throw new IllegalArgumentException("3x3 커널은 가중치가 9개여야 함");
+        if (divisor == 0) throw new IllegalArgumentException("divisor는 0이 될 수 없음");
+
+        this.weights = weights.clone();
+        this.divisor = divisor;
+        this.bias = bias;
+    }
+
+    public static KernelFilter boxBlur() {
+        return new KernelFilter(new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1}, 9, 0);
+    }
+
+    public static KernelFilter gaussianBlur() {
+        return new KernelFilter(new int[]{1, 2, 1, 2, 4, 2, 1, 2, 1}, 16, 0);
+    }
+
+    public static KernelFilter sharpen() {
+        return new KernelFilter(new int[]{0, -1, 0, -1, 5, -1, 0, -1, 0}, 1, 0);
+    }
+
+    public static KernelFilter edgeDetect() {
+        return new KernelFilter(new int[]{-1, -1, -1, -1, 8, -1, -1, -1, -1}, 1, 0);
+    }
+
+    /**
+     * 세 행(위/가운데/아래)의 픽셀로 가운데 행의 결과 length개를 계산해 dst에 기록
+     * 각 행 버퍼는 왼쪽/오른쪽에 1픽셀씩 여유(Halo)가 있어서, 결과의 i번째 픽셀은 행 버퍼의 i ~ i+2 번째 픽셀을 사용함
+     */
+    public void applyRow(int[] above, int[] center, int[] below, int[] dst, int dstOffset, int length) {
+        int w0 = weights[0], w1 = weights[1], w2 = weights[2];
+        int w3 = weights[3], w4 = weights[4], w5 = weights[5];
+        int w6 = weights[6], w7 = weights[7], w8 = weights[8];
+
+        for (int i = 0; i < length; i++) {
+            int red = 0, green = 0, blue = 0;
+            int p;
+
+            p = above[i];      red += w0 * ((p >> 16) & 0xFF); green += w0 * ((p >> 8) & 0xFF); blue += w0 * (p & 0xFF);
+            p = above[i + 1];  red += w1 * ((p >> 16) & 0xFF); green += w1 * ((p >> 8) & 0xFF); blue += w1 * (p & 0xFF);
+            p = above[i + 2];  red += w2 * ((p >> 16) & 0xFF); green += w2 * ((p >> 8) & 0xFF); blue += w2 * (p & 0xFF);
+            p = center[i];     red += w3 * ((p >> 16) & 0xFF); green += w3 * ((p >> 8) & 0xFF); blue += w3 * (p & 0xFF);
+            p = center[i + 1]; red += w4 * ((p >> 16) & 0xFF); green += w4 * ((p >> 8) & 0xFF); blue += w4 * (p & 0xFF);
+            p = center[i + 2]; red += w5 * ((p >> 16) & 0xFF); green += w5 * ((p >> 8) & 0xFF); blue += w5 * (p & 0xFF);
+            p = below[i];      red += w6 * ((p >> 16) & 0xFF); green += w6 * ((p >> 8) & 0xFF); blue += w6 * (p & 0xFF);
+            p = below[i + 1];  red += w7 * ((p >> 16) & 0xFF); green += w7 * ((p >> 8) & 0xFF); blue += w7 * (p & 0xFF);
+            p = below[i + 2];  red += w8 * ((p >> 16) & 0xFF); green += w8 * ((p >> 8) & 0xFF); blue += w8 * (p & 0xFF);
+
+            dst[dstOffset + i] = (center[i + 1] & 0xFF000000)
+                    | PixelFilter.clamp(red / divisor + bias) << 16
+                    | PixelFilter.clamp(green / divisor + bias) << 8
+                    | PixelFilter.clamp(blue / divisor + bias);
+        }
+    }
+}
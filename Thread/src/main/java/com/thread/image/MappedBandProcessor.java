@@ -0,0 +1,254 @@
+package com.thread.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 힙보다 큰 이미지를 위한 행 묶음(Band) 단위 처리기
+ * BufferedImage로 전체를 디코딩하는 대신 Raw RGB 포맷인 PPM(P6) 파일을 FileChannel.map()으로 Band 크기만큼만 매핑하고,
+ * 각 행을 재사용 버퍼(byte[] / int[])로 변환해 PixelFilter를 적용한 뒤 출력 파일의 같은 위치에 기록함
+ * 힙에는 스레드별 행 버퍼만 올라가고, 한번에 매핑되는 크기는 입력 + 출력 Band로 memoryBudget 이하로 제한됨
+ * 매핑된 페이지는 힙이 아닌 OS 페이지 캐시에 올라가며, 이전 Band의 매핑은 GC 시점에 해제됨
+ * 주변 픽셀이 필요한 KernelFilter는 Band 경계에서 Halo 행이 필요하므로 여기서는 점 필터(PixelFilter)만 지원함
+ *
+ * 실행 인자 : <입력 .ppm> <출력 .ppm> [메모리 예산 MB], 인자가 없으면 img/Flowers.jpg를 PPM으로 변환해서 처리
+ */
+@Slf4j
+public class MappedBandProcessor {
+    private static final int BYTES_PER_PIXEL = 3;
+
+    private final long memoryBudget;
+    private final int parallelism;
+
+    public MappedBandProcessor(long memoryBudget, int parallelism) {
+        this.memoryBudget = memoryBudget;
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input;
+        Path output;
+
+        if (args.length >= 2) {
+            input = Paths.get(args[0]);
+            output = Paths.get(args[1]);
+        } else {
+            input = Files.createTempFile("flowers", ".ppm");
+            output = Files.createTempFile("purple-flowers", ".ppm");
+            writePpm(ImageIO.read(new ClassPathResource("img/Flowers.jpg").getFile()), input);
+        }
+
+        long budget = (args.length > 2 ? Long.parseLong(args[2]) : 64) * 1024 * 1024;
+        MappedBandProcessor processor = new MappedBandProcessor(budget, TiledImageTask.POOL.getParallelism());
+
+        long startTime = System.currentTimeMillis();
+        processor.process(input, output, PixelFilter.recolor());
+        log.info("Band 단위 처리 완료 : {} -> {}, {}ms", input, output, System.currentTimeMillis() - startTime);
+    }
+
+    /* input PPM의 모든 픽셀에 filter를 적용해 같은 크기의 output PPM으로 기록 */
+    public void process(Path input, Path output, PixelFilter filter) throws Exception {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            PpmHeader header = PpmHeader.read(in);
+            long rowBytes = (long) header.width * BYTES_PER_PIXEL;
+            long pixelBytes = rowBytes * header.height;
+
+            if (in.size() < header.dataOffset + pixelBytes) {
+                throw new IOException("PPM 파일이 헤더의 크기보다 작음 : " + input);
+            }
+
+            // 출력 파일 헤더 기록 & 전체 크기 확보
+            byte[] headerBytes = header.encode();
+            out.write(ByteBuffer.wrap(headerBytes), 0);
+            out.write(ByteBuffer.wrap(new byte[1]), headerBytes.length + pixelBytes - 1);
+
+            // 입력 + 출력 매핑이 예산을 넘지 않는 행 수, 최소 1행 (매핑 1개는 2GB 미만)
+            long rowsByBudget = memoryBudget / (rowBytes * 2);
+            long rowsByMapLimit = Integer.MAX_VALUE / rowBytes;
+            int bandRows = (int) Math.max(1, Math.min(header.height, Math.min(rowsByBudget, rowsByMapLimit)));
+
+            log.info("{}x{} 이미지, Band 당 {}행, 총 {}개 Band", header.width, header.height, bandRows,
+                    (header.height + bandRows - 1) / bandRows);
+
+            for (int bandTop = 0; bandTop < header.height; bandTop += bandRows) {
+                int rows = Math.min(bandRows, header.height - bandTop);
+                long size = rows * rowBytes;
+
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, header.dataOffset + bandTop * rowBytes, size);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, headerBytes.length + bandTop * rowBytes, size);
+
+                processBand(source, target, header.width, rows, filter);
+                target.force();
+            }
+        }
+    }
+
+    /* Band 하나를 parallelism개의 행 구간으로 나눠 공유 ForkJoinPool에서 처리, 구간 하나라도 실패하면 그 예외를 그대로 던짐 */
+    private void processBand(MappedByteBuffer source, MappedByteBuffer target, int width, int rows, PixelFilter filter)
+            throws InterruptedException, ExecutionException {
+        int chunks = Math.min(parallelism, rows);
+        int rowsPerChunk = (rows + chunks - 1) / chunks;
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (int fromRow = 0; fromRow < rows; fromRow += rowsPerChunk) {
+            int start = fromRow;
+            int end = Math.min(rows, fromRow + rowsPerChunk);
+
+            tasks.add(() -> {
+                processRows(source, target, width, start, end, filter);
+                return null;
+            });
+        }
+
+        // invokeAll()은 작업의 예외를 Future에 담아두기만 하므로, 꺼내서 던지지 않으면 일부만 필터링된 파일이 정상 결과처럼 남음
+        for (Future<Void> result : TiledImageTask.POOL.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error cause) throw cause;
+                throw e;
+            }
+        }
+    }
+
+    /* 행마다 RGB 바이트 -> ARGB int 변환, 필터 적용, 다시 RGB 바이트로 기록 (버퍼는 구간 단위로 한번만 할당) */
+    private static void processRows(ByteBuffer source, ByteBuffer target, int width, int fromRow, int toRow, PixelFilter filter) {
+        int rowBytes = width * BYTES_PER_PIXEL;
+        byte[] bytes = new byte[rowBytes];
+        int[] pixels = new int[width];
+
+        for (int y = fromRow; y < toRow; y++) {
+            int position = y * rowBytes;
+            source.get(position, bytes); // 절대 위치 Bulk Get, 버퍼의 position을 바꾸지 않으므로 스레드끼리 공유 가능
+
+            for (int x = 0, i = 0; x < width; x++, i += BYTES_PER_PIXEL) {
+                pixels[x] = 0xFF000000
+                        | (bytes[i] & 0xFF) << 16
+                        | (bytes[i + 1] & 0xFF) << 8
+                        | (bytes[i + 2] & 0xFF);
+            }
+
+            filter.applyRow(pixels, 0, pixels, 0, width);
+
+            for (int x = 0, i = 0; x < width; x++, i += BYTES_PER_PIXEL) {
+                int rgb = pixels[x];
+                bytes[i] = (byte) (rgb >> 16);
+                bytes[i + 1] = (byte) (rgb >> 8);
+                bytes[i + 2] = (byte) rgb;
+            }
+
+            target.put(position, bytes);
+        }
+    }
+
+    /* BufferedImage를 PPM(P6) 파일로 저장, 테스트 입력 생성용 */
+    public static void writePpm(BufferedImage image, Path path) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] row = new int[width];
+        byte[] bytes = new byte[width * BYTES_PER_PIXEL];
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            outputStream.write(new PpmHeader(width, height, 0).encode());
+
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+
+                for (int x = 0, i = 0; x < width; x++, i += BYTES_PER_PIXEL) {
+                    bytes[i] = (byte) (row[x] >> 16);
+                    bytes[i + 1] = (byte) (row[x] >> 8);
+                    bytes[i + 2] = (byte) row[x];
+                }
+
+                outputStream.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * PPM(P6) 헤더 : "P6" 너비 높이 최대값(255) 뒤에 공백 1개, 그 다음부터 RGB 바이트
+     * @field dataOffset : 파일 내 픽셀 데이터의 시작 위치
+     */
+    record PpmHeader(int width, int height, long dataOffset) {
+        private static final int MAX_HEADER_SIZE = 1024;
+
+        static PpmHeader read(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_HEADER_SIZE, channel.size()));
+            channel.read(buffer, 0);
+            buffer.flip();
+
+            int[] values = new int[4]; // magic 자리 + width, height, maxValue
+            if (buffer.remaining() < 2) throw new IOException("PPM 헤더가 잘림");
+            String magic = "" + (char) buffer.get() + (char) buffer.get();
+            if (!magic.equals("P6")) throw new IOException("P6 PPM 파일이 아님 : " + magic);
+
+            for (int i = 1; i < values.length; i++) {
+                skipWhitespaceAndComments(buffer);
+                int start = buffer.position();
+                long value = 0;
+
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get(buffer.position());
+                    if (b < '0' || b > '9') break;
+                    value = value * 10 + (b - '0');
+                    if (value > Integer.MAX_VALUE) throw new IOException("PPM 헤더 값이 너무 큼");
+                    buffer.get();
+                }
+
+                if (buffer.position() == start) throw new IOException("PPM 헤더에 숫자가 없음 (" + i + "번째 값)");
+                values[i] = (int) value;
+            }
+
+            // 너비 / 높이가 0이면 rowBytes가 0이 되어 Band 크기 계산에서 0으로 나누게 되므로 헤더 단계에서 거부
+            if (values[1] <= 0 || values[2] <= 0) {
+                throw new IOException("PPM 너비 / 높이는 1 이상이어야 함 : " + values[1] + "x" + values[2]);
+            }
+            if (values[3] != 255) throw new IOException("maxValue가 255인 8비트 PPM만 지원 : " + values[3]);
+
+            if (!buffer.hasRemaining()) throw new IOException("PPM 헤더가 잘림");
+            buffer.get(); // 픽셀 데이터 앞의 공백 1개
+            return new PpmHeader(values[1], values[2], buffer.position());
+        }
+
+        private static void skipWhitespaceAndComments(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get(buffer.position());
+
+                if (b == '#') {
+                    while (buffer.hasRemaining() && buffer.get() != '\n') ;
+                } else if (Character.isWhitespace(b)) {
+                    buffer.get();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        byte[] encode() {
+            return ("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.thread.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * BufferedImage의 픽셀을 픽셀 단위 getRGB/setRGB 호출 없이 int 배열로 읽고 쓰기 위한 래퍼
+ * TYPE_INT_RGB / TYPE_INT_ARGB 이미지는 DataBufferInt의 backing array에 직접 접근하고,
+ * 그 외 타입(3BYTE_BGR 등)은 행(Scanline) 단위 int[] 버퍼로 getRGB/setRGB를 한번에 호출함
+ * @field data : DataBufferInt의 backing array, 직접 접근이 불가능한 이미지면 null
+ * @field offset : (0, 0) 픽셀의 data 내 인덱스
+ * @field stride : 한 행(Scanline)의 길이
+ * @field readAlpha : alpha 채널이 없는 이미지를 읽을 때 getRGB()와 같도록 채워줄 alpha 값
+ * @field writeMask : alpha 채널이 없는 이미지에 쓸 때 setRGB()와 같도록 alpha를 버리는 마스크
+ */
+public class PixelBuffer {
+    private final BufferedImage image;
+    private final int[] data;
+    private final int offset;
+    private final int stride;
+    private final int readAlpha;
+    private final int writeMask;
+
+    private PixelBuffer(BufferedImage image) {
+        this.image = image;
+
+        int type = image.getType();
+        WritableRaster raster = image.getRaster();
+
+        if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                && raster.getDataBuffer() instanceof DataBufferInt dataBuffer
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel) {
+            this.data = dataBuffer.getData();
+            this.stride = sampleModel.getScanlineStride();
+            this.offset = dataBuffer.getOffset()
+                    - raster.getSampleModelTranslateY() * stride
+                    - raster.getSampleModelTranslateX();
+        } else {
+            this.data = null;
+            this.stride = 0;
+            this.offset = 0;
+        }
+
+        boolean hasAlpha = image.getColorModel().hasAlpha();
+        this.readAlpha = hasAlpha ? 0 : 0xFF000000;
+        this.writeMask = hasAlpha ? 0xFFFFFFFF : 0x00FFFFFF;
+    }
+
+    public static PixelBuffer of(BufferedImage image) {
+        return new PixelBuffer(image);
+    }
+
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    /* backing array에 직접 접근 가능한지 여부 */
+    public boolean isDirect() {
+        return data != null;
+    }
+
+    public int[] data() {
+        return data;
+    }
+
+    /* (x, y) 픽셀의 backing array 인덱스 */
+    public int index(int x, int y) {
+        return offset + y * stride + x;
+    }
+
+    /* 읽을 때 채워줄 alpha 값, 0이면 backing array의 값이 이미 ARGB라 그대로 쓸 수 있음 */
+    public int readAlpha() {
+        return data != null ? readAlpha : 0;
+    }
+
+    public int writeMask() {
+        return data != null ? writeMask : 0xFFFFFFFF;
+    }
+
+    /* y행의 x부터 length개의 픽셀을 ARGB 형태로 dst에 복사 */
+    public void readRow(int x, int y, int length, int[] dst, int dstOffset) {
+        if (data != null) {
+            int from = index(x, y);
+
+            for (int i = 0; i < length; i++) {
+                dst[dstOffset + i] = data[from + i] | readAlpha;
+            }
+        } else {
+            image.getRGB(x, y, length, 1, dst, dstOffset, length);
+        }
+    }
+
+    /* src의 ARGB 픽셀 length개를 y행의 x부터 기록 */
+    public void writeRow(int x, int y, int length, int[] src, int srcOffset) {
+        if (data != null) {
+            int to = index(x, y);
+
+            for (int i = 0; i < length; i++) {
+                data[to + i] = src[srcOffset + i] & writeMask;
+            }
+        } else {
+            image.setRGB(x, y, length, 1, src, srcOffset, length);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.thread.image;
+
+/**
+ * 픽셀 하나의 ARGB 값만 보고 새 ARGB 값을 만드는 점(Point) 필터
+ * applyRow()는 행 단위로 필터를 적용하는 루프이며, 여러 필터를 andThen()으로 묶으면
+ * 한 행을 L1 캐시에 올려둔 채로 모든 필터를 연달아 적용하기 때문에 이미지 전체를 필터 수만큼 순회하지 않음
+ */
+@FunctionalInterface
+public interface PixelFilter {
+
+    int apply(int argb);
+
+    /* src의 픽셀 length개에 필터를 적용해 dst에 기록, src와 dst가 같은 배열/위치여도 됨 */
+    default void applyRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = apply(src[srcOffset + i]);
+        }
+    }
+
+    /* 이 필터를 적용한 행에 이어서 next를 제자리(In-Place)로 적용하는 융합 필터 */
+    default PixelFilter andThen(PixelFilter next) {
+        PixelFilter first = this;
+
+        return new PixelFilter() {
+            @Override
+            public int apply(int argb) {
+                return next.apply(first.apply(argb));
+            }
+
+            @Override
+            public void applyRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+                first.applyRow(src, srcOffset, dst, dstOffset, length);
+                next.applyRow(dst, dstOffset, dst, dstOffset, length);
+            }
+        };
+    }
+
+    /* ========== Filters ========== */
+
+    /* 회색 계열 픽셀을 보라색 계열로 바꾸는 기존 색칠 로직, 행 단위 처리는 스칼라/벡터 커널을 그대로 사용 */
+    static PixelFilter recolor() {
+        return new PixelFilter() {
+            @Override
+            public int apply(int argb) {
+                return ImageProcessing.recolorRGB(argb);
+            }
+
+            @Override
+            public void applyRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+                ImageProcessing.recolorRow(src, srcOffset, dst, dstOffset, length, 0xFFFFFFFF);
+            }
+        };
+    }
+
+    /* 모든 채널에 delta를 더함 (0 ~ 255로 제한), alpha는 유지 */
+    static PixelFilter brightness(int delta) {
+        return argb -> (argb & 0xFF000000)
+                | clamp(ImageProcessing.getRed(argb) + delta) << 16
+                | clamp(ImageProcessing.getGreen(argb) + delta) << 8
+                | clamp(ImageProcessing.getBlue(argb) + delta);
+    }
+
+    /* 밝기(Luma)가 level 이상이면 흰색, 미만이면 검은색, alpha는 유지 */
+    static PixelFilter threshold(int level) {
+        return argb -> {
+            int luma = (ImageProcessing.getRed(argb) * 299
+                    + ImageProcessing.getGreen(argb) * 587
+                    + ImageProcessing.getBlue(argb) * 114) / 1000;
+
+            return (argb & 0xFF000000) | (luma >= level ? 0x00FFFFFF : 0);
+        };
+    }
+
+    /**
+     * 채널 순서를 바꿈, order는 새 R/G/B 자리에 들어갈 원본 채널 (ex. "BGR" = 빨강과 파랑 교환)
+     * 채널별 시프트 값을 미리 계산해두기 때문에 픽셀마다 문자열을 보지 않음
+     */
+    static PixelFilter swapChannels(String order) {
+        if (order.length() != 3) throw new IllegalArgumentException("채널 순서는 3글자여야 함 : " + order);
+
+        int redShift = channelShift(order.charAt(0));
+        int greenShift = channelShift(order.charAt(1));
+        int blueShift = channelShift(order.charAt(2));
+
+        return argb -> (argb & 0xFF000000)
+                | ((argb >> redShift) & 0xFF) << 16
+                | ((argb >> greenShift) & 0xFF) << 8
+                | ((argb >> blueShift) & 0xFF);
+    }
+
+    private static int channelShift(char channel) {
+        return switch (Character.toUpperCase(channel)) {
+            case 'R' -> 16;
+            case 'G' -> 8;
+            case 'B' -> 0;
+            default -> throw new IllegalArgumentException("알 수 없는 채널 : " + channel);
+        };
+    }
+
+    static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,95 @@
+package com.thread.image;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 이미지를 사각형 타일로 재귀 분할해 ForkJoinPool의 Work-Stealing으로 처리하는 작업
+ * 타일 하나를 처리하는 방법은 TileOperation으로 주입받음 (색칠, FilterChain의 각 Pass 등)
+ * 고정된 가로 띠(Strip)와 달리 타일이 작고 많아서 느린 영역이 생겨도 다른 스레드가 남은 타일을 가져가고,
+ * 긴 변을 반으로 나누기 때문에 높이가 스레드 수로 나누어 떨어지지 않아도 누락되는 행이 없음
+ * @field POOL : 모든 이미지 작업이 공유하는 ForkJoinPool, 여러 이미지를 동시에 처리해도 스레드가 늘어나지 않음
+ * @field DEFAULT_THRESHOLD : 더이상 분할하지 않을 타일의 최대 픽셀 수 (image.tile.threshold 시스템 프로퍼티로 조정)
+ */
+public class TiledImageTask extends RecursiveAction {
+    public static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_THRESHOLD = Integer.getInteger("image.tile.threshold", 128 * 128);
+    private static final int MIN_TILE_SIDE = 16; // 너무 얇은 타일은 행 단위 처리 효율이 떨어지므로 분할하지 않는 최소 변의 길이
+
+    private final TileOperation operation;
+    private final PixelBuffer source;
+    private final PixelBuffer target;
+    private final int leftCorner;
+    private final int topCorner;
+    private final int width;
+    private final int height;
+    private final int threshold;
+
+    public TiledImageTask(TileOperation operation,
+                          PixelBuffer source,
+                          PixelBuffer target,
+                          int leftCorner,
+                          int topCorner,
+                          int width,
+                          int height,
+                          int threshold) {
+        this.operation = operation;
+        this.source = source;
+        this.target = target;
+        this.leftCorner = leftCorner;
+        this.topCorner = topCorner;
+        this.width = width;
+        this.height = height;
+        this.threshold = threshold;
+    }
+
+    /* 공유 Pool에서 전체 이미지를 타일 단위로 색칠, 호출한 스레드는 작업이 끝날 때까지 대기 */
+    public static void recolor(BufferedImage original, BufferedImage result) {
+        recolor(original, result, DEFAULT_THRESHOLD);
+    }
+
+    public static void recolor(BufferedImage original, BufferedImage result, int threshold) {
+        run((source, target, leftCorner, topCorner, width, height) ->
+                ImageProcessing.recolorRegion(source, target, leftCorner, topCorner, width, height, new int[width]),
+                PixelBuffer.of(original), PixelBuffer.of(result), threshold);
+    }
+
+    /* 공유 Pool에서 source 전체 영역을 타일 단위로 operation 처리 */
+    public static void run(TileOperation operation, PixelBuffer source, PixelBuffer target, int threshold) {
+        POOL.invoke(new TiledImageTask(operation, source, target, 0, 0, source.getWidth(), source.getHeight(), threshold));
+    }
+
+    @Override
+    protected void compute() {
+        boolean splitWidth = width >= height && width / 2 >= MIN_TILE_SIDE;
+        boolean splitHeight = !splitWidth && height / 2 >= MIN_TILE_SIDE;
+
+        // 타일이 충분히 작거나 더 나눌 수 없으면 직접 처리
+        if ((long) width * height <= threshold || (!splitWidth && !splitHeight)) {
+            operation.process(source, target, leftCorner, topCorner, width, height);
+            return;
+        }
+
+        // 긴 변을 반으로 나눠 두 타일로 분할, 홀수 길이의 나머지는 두번째 타일이 가져감
+        if (splitWidth) {
+            int half = width / 2;
+            invokeAll(
+                    new TiledImageTask(operation, source, target, leftCorner, topCorner, half, height, threshold),
+                    new TiledImageTask(operation, source, target, leftCorner + half, topCorner, width - half, height, threshold)
+            );
+        } else {
+            int half = height / 2;
+            invokeAll(
+                    new TiledImageTask(operation, source, target, leftCorner, topCorner, width, half, threshold),
+                    new TiledImageTask(operation, source, target, leftCorner, topCorner + half, width, height - half, threshold)
+            );
+        }
+    }
+
+    /* 타일 하나(source의 지정된 영역)를 처리해 target의 같은 영역에 기록하는 작업 */
+    @FunctionalInterface
+    public interface TileOperation {
+        void process(PixelBuffer source, PixelBuffer target, int leftCorner, int topCorner, int width, int height);
+    }
+}
@@ -0,0 +1,107 @@
+package com.thread.image;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * jdk.incubator.vector의 IntVector로 구현한 행 단위 색칠 커널
+ * isShadeOfGray()의 비교를 VectorMask로, 회색일 때의 Math.min()/Math.max() 보정을 lanewise 연산 + blend로 바꿔
+ * 한번에 SPECIES.length()개의 픽셀을 처리하고, 루프 경계 밖의 나머지 픽셀은 스칼라 커널로 처리함
+ * 실행 시 --add-modules jdk.incubator.vector 옵션과 -Dimage.recolor.vector=true 시스템 프로퍼티가 필요함
+ * @field SPECIES : 현재 CPU에서 가장 넓은 정수 벡터 (AVX2 = 8 lane, AVX-512 = 16 lane)
+ */
+@Slf4j
+public class VectorRecolorKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int GRAY_THRESHOLD = 30;
+
+    /* 벡터 커널을 쓸 의미가 있는지 (lane이 1개면 스칼라와 다를게 없음) */
+    public static boolean isAvailable() {
+        return SPECIES.length() > 1;
+    }
+
+    /* ImageProcessing.recolorRowScalar()와 같은 결과를 내는 벡터 커널, src와 dst가 같은 배열이어도 됨 */
+    public static void recolorRow(int[] src, int srcOffset, int[] dst, int dstOffset, int length, int writeMask) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            IntVector rgb = IntVector.fromArray(SPECIES, src, srcOffset + i);
+
+            IntVector red = rgb.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+            IntVector green = rgb.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+            IntVector blue = rgb.and(0xFF);
+
+            // isShadeOfGray() : 세 채널간 차이의 절대값이 모두 30 미만인 lane만 true
+            VectorMask<Integer> gray = red.sub(green).abs().lt(GRAY_THRESHOLD)
+                    .and(red.sub(blue).abs().lt(GRAY_THRESHOLD))
+                    .and(green.sub(blue).abs().lt(GRAY_THRESHOLD));
+
+            IntVector newRed = red.blend(red.add(10).min(255), gray);
+            IntVector newGreen = green.blend(green.sub(80).max(0), gray);
+            IntVector newBlue = blue.blend(blue.sub(20).max(0), gray);
+
+            newRed.lanewise(VectorOperators.LSHL, 16)
+                    .or(newGreen.lanewise(VectorOperators.LSHL, 8))
+                    .or(newBlue)
+                    .or(0xFF000000)
+                    .and(writeMask)
+                    .intoArray(dst, dstOffset + i);
+        }
+
+        for (; i < length; i++) {
+            dst[dstOffset + i] = ImageProcessing.recolorRGB(src[srcOffset + i]) & writeMask;
+        }
+    }
+
+    /* 스칼라 / 벡터 커널의 초당 처리 픽셀 수 비교 & 결과가 비트 단위로 같은지 검증 */
+    public static void main(String[] args) {
+        int pixels = 4096 * 4096;
+        int rounds = 20;
+        int[] source = new int[pixels];
+        int[] scalarResult = new int[pixels];
+        int[] vectorResult = new int[pixels];
+        Random random = new Random();
+
+        // 절반은 회색 계열, 절반은 임의의 색상
+        for (int i = 0; i < pixels; i++) {
+            int gray = random.nextInt(256);
+            source[i] = random.nextBoolean()
+                    ? ImageProcessing.createRGBFromColors(gray, Math.min(255, gray + random.nextInt(40)), gray)
+                    : random.nextInt();
+        }
+
+        // JIT 워밍업
+        for (int i = 0; i < 5; i++) {
+            ImageProcessing.recolorRowScalar(source, 0, scalarResult, 0, pixels, 0x00FFFFFF);
+            recolorRow(source, 0, vectorResult, 0, pixels, 0x00FFFFFF);
+        }
+
+        long scalarStart = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ImageProcessing.recolorRowScalar(source, 0, scalarResult, 0, pixels, 0x00FFFFFF);
+        }
+        long scalarTime = System.nanoTime() - scalarStart;
+
+        long vectorStart = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            recolorRow(source, 0, vectorResult, 0, pixels, 0x00FFFFFF);
+        }
+        long vectorTime = System.nanoTime() - vectorStart;
+
+        double scalarPixelsPerSecond = (double) pixels * rounds / scalarTime * 1_000_000_000L;
+        double vectorPixelsPerSecond = (double) pixels * rounds / vectorTime * 1_000_000_000L;
+
+        log.info("Vector Species : {} ({} lanes)", SPECIES, SPECIES.length());
+        log.info("Scalar : {} Mpixel/s", String.format("%.1f", scalarPixelsPerSecond / 1_000_000));
+        log.info("Vector : {} Mpixel/s (x{})", String.format("%.1f", vectorPixelsPerSecond / 1_000_000),
+                String.format("%.2f", vectorPixelsPerSecond / scalarPixelsPerSecond));
+        log.info("결과 일치 여부 : {}", Arrays.equals(scalarResult, vectorResult));
+    }
+}
@@ -0,0 +1,152 @@
+package com.thread.lockfree;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Elimination-Backoff Stack : LockFreeStack(Treiber Stack)에 두가지를 더한 버전
+ * 1) Elimination : head CAS에 실패한 push는 Elimination 배열의 빈 칸에 자기 노드를 잠깐 올려두고 기다리고,
+ *    head CAS에 실패한 pop은 배열에서 노드를 가져감 -> 충돌한 push/pop 쌍은 head를 건드리지 않고 값을 바로 주고받음
+ *    (push 직후 pop 한 것과 같은 결과이므로 Stack의 LIFO 의미를 깨지 않음)
+ * 2) Adaptive Backoff : LockSupport.parkNanos(1) 대신 Thread.onSpinWait()로 짧게 기다리고, 연속 실패할수록 대기 시간을 2배씩 늘림
+ *    Elimination이 성공하면 배열의 사용 범위를 넓히고(짝을 만날 칸이 많아짐), 시간 안에 짝을 못 만나면 범위를 좁힘
+ * 스레드가 많을수록 충돌이 잦아지고, 충돌이 잦을수록 Elimination으로 빠지는 연산이 늘어나므로 head 하나에 몰리는 경합이 분산됨
+ * push 1번의 할당은 노드 1개뿐이고, Elimination 배열에도 같은 노드를 그대로 올림
+ * @field head : 스택의 최상단 노드
+ * @field eliminationArray : push가 pop을 기다리며 노드를 올려두는 칸, 칸마다 독립된 CAS 대상이라 head보다 경합이 적음
+ * @field backoff : 스레드별 Backoff 상태 (CAS 실패 경로에서만 조회)
+ */
+public class EliminationBackoffStack<T> {
+    private static final int ELIMINATION_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int ELIMINATION_WAIT_SPINS = 128; // push가 짝을 기다리는 최대 스핀 수
+    private static final int MIN_BACKOFF_SPINS = 1;
+    private static final int MAX_BACKOFF_SPINS = 1024;
+
+    private final AtomicReference<Node<T>> head = new AtomicReference<>();
+    private final AtomicReferenceArray<Node<T>> eliminationArray = new AtomicReferenceArray<>(ELIMINATION_SIZE);
+    private final ThreadLocal<Backoff> backoff = ThreadLocal.withInitial(Backoff::new);
+
+    public void push(T value) {
+        Node<T> node = new Node<>(value);
+
+        // 경합이 없으면 LockFreeStack과 같은 경로 (ThreadLocal 조회도 없음)
+        node.next = head.get();
+        if (head.compareAndSet(node.next, node)) return;
+
+        Backoff state = backoff.get();
+
+        while (true) {
+            if (tryEliminatePush(node, state)) {
+                state.onSuccess();
+                return;
+            }
+
+            state.spin();
+
+            node.next = head.get();
+            if (head.compareAndSet(node.next, node)) {
+                state.onSuccess();
+                return;
+            }
+        }
+    }
+
+    /* 비어있으면 null */
+    public T pop() {
+        Node<T> current = head.get();
+        if (current == null) return null;
+        if (head.compareAndSet(current, current.next)) return current.value;
+
+        Backoff state = backoff.get();
+
+        while (true) {
+            Node<T> eliminated = tryEliminatePop(state);
+            if (eliminated != null) {
+                state.onSuccess();
+                return eliminated.value;
+            }
+
+            state.spin();
+
+            current = head.get();
+            if (current == null) return null;
+            if (head.compareAndSet(current, current.next)) {
+                state.onSuccess();
+                return current.value;
+            }
+        }
+    }
+
+    /* 빈 칸에 노드를 올리고 잠깐 기다림, pop이 가져갔으면 true / 기다려도 안 가져가면 다시 회수하고 false */
+    private boolean tryEliminatePush(Node<T> node, Backoff state) {
+        int slot = ThreadLocalRandom.current().nextInt(state.range);
+        if (!eliminationArray.compareAndSet(slot, null, node)) return false;
+
+        for (int i = 0; i < ELIMINATION_WAIT_SPINS; i++) {
+            if (eliminationArray.get(slot) != node) {
+                state.onEliminated();
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+
+        // 회수 CAS에 실패했다면 그 사이 pop이 가져간 것
+        if (eliminationArray.compareAndSet(slot, node, null)) {
+            state.onTimeout();
+            return false;
+        }
+
+        state.onEliminated();
+        return true;
+    }
+
+    /* 임의의 칸에 기다리는 push의 노드가 있으면 가져감, 노드는 push마다 새로 만들어지므로 ABA 문제가 없음 */
+    private Node<T> tryEliminatePop(Backoff state) {
+        int slot = ThreadLocalRandom.current().nextInt(state.range);
+        Node<T> node = eliminationArray.get(slot);
+
+        if (node != null && eliminationArray.compareAndSet(slot, node, null)) {
+            state.onEliminated();
+            return node;
+        }
+
+        return null;
+    }
+
+    /**
+     * 스레드별 Backoff 상태, 해당 스레드만 접근하므로 동기화 불필요
+     * @field spins : 다음 CAS 재시도 전 대기할 스핀 수, 실패할수록 2배 (최대 MAX_BACKOFF_SPINS)
+     * @field range : Elimination 배열에서 사용할 칸 수, 성공하면 늘리고 시간 초과면 줄임
+     */
+    private static class Backoff {
+        private int spins = MIN_BACKOFF_SPINS;
+        private int range = 1;
+
+        void spin() {
+            for (int i = 0; i < spins; i++) Thread.onSpinWait();
+            spins = Math.min(spins << 1, MAX_BACKOFF_SPINS);
+        }
+
+        void onSuccess() {
+            spins = MIN_BACKOFF_SPINS;
+        }
+
+        void onEliminated() {
+            range = Math.min(range + 1, ELIMINATION_SIZE);
+        }
+
+        void onTimeout() {
+            range = Math.max(range - 1, 1);
+        }
+    }
+
+    private static class Node<T> {
+        private final T value;
+        private Node<T> next;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+}
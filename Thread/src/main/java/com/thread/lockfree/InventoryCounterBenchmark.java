@@ -0,0 +1,92 @@
+package com.thread.lockfree;
+
+import com.thread.lockfree.ECommerceInventoryCounter.InventoryCounter;
+import com.thread.share.ThroughputHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 재고 카운터의 스레드 수(1 ~ 64)별 처리량 비교
+ * - 단순 증감 : InventoryCounter(AtomicInteger) / LongAdder / StripedInventoryCounter, 스레드마다 increment -> decrement 반복
+ * - 예약 : AtomicLong CAS 루프(0 미만 불가) / StripedInventoryCounter, 스레드마다 release(1) -> tryReserve(1) 반복
+ *
+ * 실행 인자 : [스레드 수별 측정 시간 ms] [최대 스레드 수]
+ */
+@Slf4j
+public class InventoryCounterBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        long durationMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        List<Candidate> candidates = List.of(
+                new Candidate("AtomicInteger", () -> {
+                    InventoryCounter counter = new InventoryCounter();
+                    return () -> {
+                        counter.increment();
+                        counter.decrement();
+                    };
+                }),
+                new Candidate("LongAdder", () -> {
+                    LongAdder adder = new LongAdder();
+                    return () -> {
+                        adder.increment();
+                        adder.decrement();
+                    };
+                }),
+                new Candidate("Striped", () -> {
+                    StripedInventoryCounter counter = new StripedInventoryCounter();
+                    return () -> {
+                        counter.increment();
+                        counter.decrement();
+                    };
+                }),
+                new Candidate("AtomicReserve", () -> {
+                    AtomicLong stock = new AtomicLong();
+                    return () -> {
+                        stock.incrementAndGet();
+                        reserve(stock);
+                    };
+                }),
+                new Candidate("StripedReserve", () -> {
+                    StripedInventoryCounter counter = new StripedInventoryCounter();
+                    return () -> {
+                        counter.release(1);
+                        counter.tryReserve(1);
+                    };
+                })
+        );
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            StringBuilder line = new StringBuilder("threads=" + threads);
+
+            for (Candidate candidate : candidates) {
+                Runnable operation = candidate.factory().get();
+
+                // operation 1번 = 증감 2번으로 셈
+                ThroughputHarness.opsPerSecond(threads, 2, i -> operation, durationMillis / 4); // Warm-up
+                long opsPerSecond = ThroughputHarness.opsPerSecond(threads, 2, i -> operation, durationMillis);
+
+                line.append(String.format(" | %s %,d ops/s", candidate.name(), opsPerSecond));
+            }
+
+            log.info(line.toString());
+        }
+    }
+
+    /* 단일 AtomicLong으로 구현한 0 미만 불가 예약, 비교 기준 */
+    private static boolean reserve(AtomicLong stock) {
+        while (true) {
+            long available = stock.get();
+            if (available <= 0) return false;
+            if (stock.compareAndSet(available, available - 1)) return true;
+        }
+    }
+
+    private record Candidate(String name, Supplier<Runnable> factory) {
+    }
+}
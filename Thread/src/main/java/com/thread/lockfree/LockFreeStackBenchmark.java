@@ -0,0 +1,78 @@
+package com.thread.lockfree;
+
+import com.thread.contention.ContentionRegistry;
+import com.thread.lockfree.LockFreeStackNode.LockFreeStack;
+import com.thread.share.ThroughputHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * LockFreeStack / EliminationBackoffStack / ConcurrentLinkedDeque의 push/pop 처리량을 스레드 수 1 ~ 64에서 비교
+ * 모든 스레드가 push와 pop을 번갈아 실행하므로 스택 크기는 초기값 근처에서 유지되고, push와 pop이 계속 충돌함
+ * 기준선인 LockFreeStack은 계측하지 않은 버전이고, LockFreeStack+metrics와의 차이가 CAS 성공 / 실패 기록 비용
+ *
+ * 실행 인자 : [스레드 수별 측정 시간 ms] [최대 스레드 수]
+ */
+@Slf4j
+public class LockFreeStackBenchmark {
+    private static final int INITIAL_SIZE = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        long durationMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        List<Candidate> candidates = List.of(
+                new Candidate("LockFreeStack", () -> {
+                    LockFreeStack<Integer> stack = new LockFreeStack<>();
+                    return new StackOperations(stack::push, stack::pop);
+                }),
+                new Candidate("LockFreeStack+metrics", () -> {
+                    LockFreeStack<Integer> stack = new LockFreeStack<>(ContentionRegistry.metrics("LockFreeStackBenchmark"));
+                    return new StackOperations(stack::push, stack::pop);
+                }),
+                new Candidate("EliminationBackoffStack", () -> {
+                    EliminationBackoffStack<Integer> stack = new EliminationBackoffStack<>();
+                    return new StackOperations(stack::push, stack::pop);
+                }),
+                new Candidate("ConcurrentLinkedDeque", () -> {
+                    ConcurrentLinkedDeque<Integer> deque = new ConcurrentLinkedDeque<>();
+                    return new StackOperations(deque::offerFirst, deque::pollFirst);
+                })
+        );
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            StringBuilder line = new StringBuilder("threads=" + threads);
+
+            for (Candidate candidate : candidates) {
+                StackOperations operations = candidate.factory().get();
+                for (int i = 0; i < INITIAL_SIZE; i++) operations.push().accept(i);
+
+                run(operations, threads, durationMillis / 4); // Warm-up
+                long opsPerSecond = run(operations, threads, durationMillis);
+
+                line.append(String.format(" | %s %,d ops/s", candidate.name(), opsPerSecond));
+            }
+
+            log.info(line.toString());
+        }
+    }
+
+    /* threads개의 스레드가 durationMillis 동안 push/pop을 번갈아 실행한 초당 연산 수 (스레드 번호를 push 값으로 사용) */
+    private static long run(StackOperations operations, int threads, long durationMillis) throws InterruptedException {
+        return ThroughputHarness.opsPerSecond(threads, 2, seed -> () -> {
+            operations.push().accept(seed);
+            operations.pop().get();
+        }, durationMillis);
+    }
+
+    private record Candidate(String name, Supplier<StackOperations> factory) {
+    }
+
+    /* 구현체마다 다른 push/pop 메소드를 같은 모양으로 감싼 것 */
+    private record StackOperations(Consumer<Integer> push, Supplier<Integer> pop) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.thread.lockfree;
 
+import com.thread.contention.ContentionMetrics;
+import com.thread.contention.ContentionRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -12,7 +14,7 @@ import java.util.concurrent.locks.LockSupport;
 @Slf4j
 public class LockFreeStackNode {
     public static void main(String[] args) throws InterruptedException {
-        LockFreeStack<Integer> stack = new LockFreeStack<>();
+        LockFreeStack<Integer> stack = new LockFreeStack<>(ContentionRegistry.metrics("LockFreeStack"));
         Random random = new Random();
 
         // 초기 랜덤 데이터 값 추가
@@ -60,10 +62,20 @@ public class LockFreeStackNode {
      * Lock을 사용하지 않고 Lock-Free 방식으로 Stack에 데이터 추가/제거
      * @field head : 스택의 최상단 노드 참조, AtomicReference를 통해 동시 접근 가능, 여러 스레드가 안전하게 head 업데이트 가능
      * @field counter : 스택 내 요소의 개수를 추적하는 Atomic Integer, Thread-Safe 하게 값 증가 가능
+     * @field metrics : 성공한 CAS / 실패한 CAS 횟수를 기록할 곳, null이면 기록하지 않음 (기본 생성자는 벤치마크 기준선이므로 계측하지 않음)
      */
     public static class LockFreeStack<T> {
         private AtomicReference<StackNode<T>> head = new AtomicReference<>();
         private AtomicInteger counter = new AtomicInteger(0);
+        private final ContentionMetrics metrics;
+
+        public LockFreeStack() {
+            this(null);
+        }
+
+        public LockFreeStack(ContentionMetrics metrics) {
+            this.metrics = metrics;
+        }
 
         public void push(T value) {
             StackNode<T> newHeadNode = new StackNode<>(value);
@@ -73,8 +85,10 @@ public class LockFreeStackNode {
                 newHeadNode.next = currentHeadNode;
 
                 if (head.compareAndSet(currentHeadNode, newHeadNode)) {
+                    if (metrics != null) metrics.recordAcquisition();
                     break;
                 } else {
+                    if (metrics != null) metrics.recordCasFailure();
                     LockSupport.parkNanos(1);
                 }
             }
@@ -89,8 +103,10 @@ public class LockFreeStackNode {
                 newHeadNode = currentHeadNode.next;
 
                 if (head.compareAndSet(currentHeadNode, newHeadNode)) {
+                    if (metrics != null) metrics.recordAcquisition();
                     break;
                 } else {
+                    if (metrics != null) metrics.recordCasFailure();
                     LockSupport.parkNanos(1);
                     currentHeadNode = head.get();
                 }
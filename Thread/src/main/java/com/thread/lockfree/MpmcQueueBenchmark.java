@@ -0,0 +1,92 @@
+package com.thread.lockfree;
+
+import com.thread.share.ThroughputHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+
+/**
+ * MpmcRingQueue / ArrayBlockingQueue / LinkedBlockingDeque의 이벤트 전달 처리량 비교
+ * Producer N개가 각자 정해진 수의 이벤트를 블로킹 put()으로 넣고, Consumer N개가 같은 수만큼 take()로 꺼낼 때까지의 시간을 측정
+ * 큐 용량은 모두 같으므로(LinkedBlockingDeque도 같은 용량 제한) Backpressure 조건도 같음
+ *
+ * 실행 인자 : [Producer당 이벤트 수] [큐 용량]
+ */
+@Slf4j
+public class MpmcQueueBenchmark {
+    private static final int[] THREAD_PAIRS = {1, 2, 4, 8};
+    private static final Integer EVENT = 42; // 박싱 비용을 빼기 위해 같은 객체를 계속 전달
+
+    public static void main(String[] args) throws InterruptedException {
+        int eventsPerProducer = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+
+        List<Candidate> candidates = List.of(
+                new Candidate("MpmcRingQueue", () -> {
+                    MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(capacity);
+                    return new BlockingOperations(queue::put, queue::take);
+                }),
+                new Candidate("ArrayBlockingQueue", () -> {
+                    ArrayBlockingQueue<Integer> queue = new ArrayBlockingQueue<>(capacity);
+                    return new BlockingOperations(queue::put, queue::take);
+                }),
+                new Candidate("LinkedBlockingDeque", () -> {
+                    LinkedBlockingDeque<Integer> queue = new LinkedBlockingDeque<>(capacity);
+                    return new BlockingOperations(queue::put, queue::take);
+                })
+        );
+
+        for (int pairs : THREAD_PAIRS) {
+            StringBuilder line = new StringBuilder("producers=" + pairs + ", consumers=" + pairs);
+
+            for (Candidate candidate : candidates) {
+                run(candidate.factory().get(), pairs, eventsPerProducer / 10); // Warm-up
+                long eventsPerSecond = run(candidate.factory().get(), pairs, eventsPerProducer);
+
+                line.append(String.format(" | %s %,d events/s", candidate.name(), eventsPerSecond));
+            }
+
+            log.info(line.toString());
+        }
+    }
+
+    /* 모든 이벤트가 전달될 때까지 걸린 시간으로 초당 전달 수 계산 */
+    private static long run(BlockingOperations queue, int pairs, int eventsPerThread) throws InterruptedException {
+        List<ThroughputHarness.Task> tasks = new ArrayList<>();
+
+        for (int i = 0; i < pairs; i++) {
+            tasks.add(() -> {
+                for (int j = 0; j < eventsPerThread; j++) queue.put().accept(EVENT);
+            });
+
+            tasks.add(() -> {
+                for (int j = 0; j < eventsPerThread; j++) queue.take().get();
+            });
+        }
+
+        long elapsed = ThroughputHarness.runToCompletion(tasks);
+
+        return (long) pairs * eventsPerThread * 1_000_000_000L / elapsed;
+    }
+
+    @FunctionalInterface
+    private interface InterruptiblePut {
+        void accept(Integer event) throws InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleTake {
+        Integer get() throws InterruptedException;
+    }
+
+    private record Candidate(String name, Supplier<BlockingOperations> factory) {
+    }
+
+    /* 구현체마다 다른 블로킹 put/take를 같은 모양으로 감싼 것 */
+    private record BlockingOperations(InterruptiblePut put, InterruptibleTake take) {
+    }
+}
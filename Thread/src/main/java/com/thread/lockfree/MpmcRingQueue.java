@@ -0,0 +1,190 @@
+package com.thread.lockfree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 크기가 제한된 배열 기반 Multi-Producer / Multi-Consumer 큐 (Dmitry Vyukov의 Bounded MPMC Queue)
+ * 칸마다 sequence 번호를 두어 칸의 상태를 나타냄
+ * - sequence == pos : 위치 pos의 Producer가 쓸 수 있는 빈 칸
+ * - sequence == pos + 1 : 위치 pos의 Consumer가 읽을 수 있는 찬 칸
+ * Producer는 tail, Consumer는 head를 CAS로 1칸 차지한 뒤 자기 칸만 읽고 쓰기 때문에, 같은 칸을 두고 경합하지 않고
+ * 서로 다른 칸을 다루는 Producer와 Consumer는 전혀 부딪히지 않음
+ * LockFreeStack과 달리 요소마다 노드를 할당하지 않고, head와 tail은 Padding으로 서로 다른 캐시 라인에 둠 (False Sharing 방지)
+ * offer() / poll()은 Lock-Free이고 가득 차거나 비어있으면 바로 false / null을 반환함
+ * put() / take()는 잠깐 스핀한 뒤에도 안되면 Condition에서 기다리고, 반대편은 기다리는 스레드가 있을 때만 Lock을 잡고 깨움
+ * @field buffer : 요소 배열, 크기는 2의 거듭제곱이라 위치 -> 칸 변환이 pos & mask
+ * @field sequences : 칸별 sequence 번호
+ */
+public class MpmcRingQueue<E> {
+    private static final int SPINS_BEFORE_BLOCKING = 64;
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final PaddedCounter head = new PaddedCounter(); // 다음에 읽을 위치
+    private final PaddedCounter tail = new PaddedCounter(); // 다음에 쓸 위치
+
+    // 블로킹 put() / take()용, 기다리는 스레드가 없으면 offer() / poll()은 Lock을 건드리지 않음
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition notEmpty = waitLock.newCondition();
+    private final Condition notFull = waitLock.newCondition();
+    private volatile int waitingConsumers = 0;
+    private volatile int waitingProducers = 0;
+
+    /* capacity는 2의 거듭제곱으로 올림 */
+    public MpmcRingQueue(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("capacity는 2 이상이어야 함 : " + capacity);
+
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /* 가득 차 있으면 false */
+    public boolean offer(E element) {
+        if (element == null) throw new NullPointerException();
+
+        long pos = tail.get();
+        int index;
+
+        while (true) {
+            index = (int) (pos & mask);
+            long difference = sequences.get(index) - pos;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (difference < 0) {
+                return false; // 한바퀴 전의 요소를 아직 아무도 읽지 않음 = 가득 참
+            } else {
+                pos = tail.get(); // 다른 Producer가 먼저 차지함
+            }
+        }
+
+        buffer[index] = element;
+        // volatile 쓰기로 발행해야 아래의 waitingConsumers 읽기보다 먼저 보장되어 깨우기 누락이 없음
+        sequences.set(index, pos + 1);
+
+        if (waitingConsumers > 0) signal(notEmpty);
+        return true;
+    }
+
+    /* 비어있으면 null */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        int index;
+
+        while (true) {
+            index = (int) (pos & mask);
+            long difference = sequences.get(index) - (pos + 1);
+
+            if (difference == 0) {
+                if (head.compareAndSet(pos, pos + 1)) break;
+                pos = head.get();
+            } else if (difference < 0) {
+                return null; // 아직 쓰이지 않은 칸 = 비어있음
+            } else {
+                pos = head.get();
+            }
+        }
+
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        sequences.set(index, pos + mask + 1); // 다음 바퀴의 Producer에게 칸을 넘김
+
+        if (waitingProducers > 0) signal(notFull);
+        return element;
+    }
+
+    /* 빈 칸이 생길 때까지 블럭 */
+    public void put(E element) throws InterruptedException {
+        for (int i = 0; i < SPINS_BEFORE_BLOCKING; i++) {
+            if (offer(element)) return;
+            Thread.onSpinWait();
+        }
+
+        waitLock.lockInterruptibly();
+        try {
+            waitingProducers++;
+            // 카운터를 올린 뒤 다시 시도하므로, 그 사이 poll()이 끝났다면 여기서 성공하고 아니면 poll()이 깨워줌
+            while (!offer(element)) notFull.await();
+        } finally {
+            waitingProducers--;
+            waitLock.unlock();
+        }
+    }
+
+    /* 요소가 들어올 때까지 블럭 */
+    public E take() throws InterruptedException {
+        E element;
+
+        for (int i = 0; i < SPINS_BEFORE_BLOCKING; i++) {
+            if ((element = poll()) != null) return element;
+            Thread.onSpinWait();
+        }
+
+        waitLock.lockInterruptibly();
+        try {
+            waitingConsumers++;
+            while ((element = poll()) == null) notEmpty.await();
+            return element;
+        } finally {
+            waitingConsumers--;
+            waitLock.unlock();
+        }
+    }
+
+    /* 동시에 변경 중이면 근사값 */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    private void signal(Condition condition) {
+        waitLock.lock();
+        try {
+            condition.signal();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /* value 앞뒤를 long 7개씩 채워서 다른 카운터와 같은 64바이트 캐시 라인에 놓이지 않게 함 */
+    @SuppressWarnings("unused")
+    private static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private static class CounterValue extends LeftPadding {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    private static class PaddedCounter extends CounterValue {
+        private static final AtomicLongFieldUpdater<CounterValue> UPDATER =
+                AtomicLongFieldUpdater.newUpdater(CounterValue.class, "value");
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        long get() {
+            return value;
+        }
+
+        boolean compareAndSet(long expected, long update) {
+            return UPDATER.compareAndSet(this, expected, update);
+        }
+    }
+}
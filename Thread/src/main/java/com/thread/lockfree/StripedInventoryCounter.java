@@ -0,0 +1,105 @@
+package com.thread.lockfree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ECommerceInventoryCounter.InventoryCounter의 AtomicInteger 하나 대신 재고를 여러 칸(Stripe)에 나눠 담는 카운터
+ * 스레드마다 정해진 칸(home)만 갱신하므로 코어가 많아도 한 캐시 라인에 모든 증감이 몰리지 않고, 전체 재고는 칸의 합(getItems)으로 읽음
+ * 칸 사이는 PADDING개의 long만큼 떨어뜨려 서로 다른 캐시 라인(인접 라인 Prefetch 포함 128바이트)에 놓이게 함
+ *
+ * 사용 방법은 두가지
+ * - increment() / decrement() : InventoryCounter와 같은 단순 증감, 칸 하나가 음수가 될 수 있고 합만 의미가 있음
+ * - release(n) / tryReserve(n) : 재고를 절대 음수로 만들지 않는 예약, 먼저 home 칸에서 CAS로 차감하고(Fast Path),
+ *   부족하면 다른 칸에서 조금씩 빌려와 n개를 채움, 그래도 부족하면 빌린 만큼 home 칸에 돌려주고 실패
+ *   두 방식을 같은 카운터에 섞어 쓰면 decrement()로 음수가 된 칸 때문에 예약이 보수적으로 실패할 수 있음
+ *   빌리는 도중에는 다른 스레드가 잠깐 가져간 재고가 보이지 않으므로, 동시에 여러 예약이 부족한 재고를 나눠 가지려 하면
+ *   전체 재고가 충분해도 실패할 수 있음 (초과 판매는 없음)
+ * @field cells : i번째 칸의 값은 cells[i * PADDING]
+ */
+public class StripedInventoryCounter {
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedInventoryCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /* stripes는 2의 거듭제곱으로 올림 */
+    public StripedInventoryCounter(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+    }
+
+    public void increment() {
+        cells.getAndIncrement(home() * PADDING);
+    }
+
+    public void decrement() {
+        cells.getAndDecrement(home() * PADDING);
+    }
+
+    /* 모든 칸의 합, 동시에 증감 중이면 순간적인 근사값 */
+    public long getItems() {
+        long sum = 0;
+
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+
+        return sum;
+    }
+
+    /* 재고 n개 추가 (또는 예약 취소로 반납) */
+    public void release(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n은 1 이상이어야 함 : " + n);
+
+        cells.getAndAdd(home() * PADDING, n);
+    }
+
+    /* 재고 n개를 차감, 모자라면 아무것도 차감하지 않고 false */
+    public boolean tryReserve(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n은 1 이상이어야 함 : " + n);
+
+        int home = home();
+
+        // Fast Path : home 칸만으로 충분한 경우
+        if (takeUpTo(home, n, true) == n) return true;
+
+        // Slow Path : home부터 차례로 모든 칸에서 있는 만큼 빌려옴
+        long taken = 0;
+        for (int i = 0; i <= mask && taken < n; i++) {
+            taken += takeUpTo((home + i) & mask, n - taken, false);
+        }
+
+        if (taken == n) return true;
+
+        if (taken > 0) cells.getAndAdd(home * PADDING, taken); // 합만 맞으면 되므로 빌린 칸이 아닌 home에 돌려줌
+        return false;
+    }
+
+    public int getStripes() {
+        return mask + 1;
+    }
+
+    /* stripe 칸에서 최대 amount개를 차감하고 실제 차감한 수를 반환, allOrNothing이면 amount개가 없을 때 0 */
+    private long takeUpTo(int stripe, long amount, boolean allOrNothing) {
+        int index = stripe * PADDING;
+
+        while (true) {
+            long available = cells.get(index);
+            if (available <= 0 || (allOrNothing && available < amount)) return 0;
+
+            long take = Math.min(available, amount);
+            if (cells.compareAndSet(index, available, available - take)) return take;
+        }
+    }
+
+    /* 스레드 ID를 섞어서 칸을 고름, 같은 스레드는 항상 같은 칸 */
+    private int home() {
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & mask;
+    }
+}
@@ -0,0 +1,282 @@
+package com.thread.reentrantlock;
+
+import com.thread.lockfree.MpmcRingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.thread.reentrantlock.InventoryApplication.HIGHEST_PRICE;
+
+/**
+ * 쓰기를 큐에 넣고 바로 반환하는 비동기 배치 쓰기 버전
+ * - submitAdd() / submitRemove()는 변경을 크기가 제한된 MpmcRingQueue에 넣고 CompletableFuture를 반환함 (큐가 가득 차면 put()에서 블럭 = Backpressure)
+ * - 적용 스레드 하나가 큐에서 최대 MAX_BATCH개씩 꺼내 FenwickInventoryDatabase에 쓰기 Lock 1번으로 한번에 적용한 뒤 Future를 완료함
+ * 여러 Writer가 쓰기 Lock을 번갈아 잡는 대신 적용 스레드만 Lock을 잡으므로 Writer끼리의 Lock 경합과 Handoff가 없어지고,
+ * Reader 입장에서도 쓰기 Lock이 잡히는 횟수가 배치 수만큼으로 줄어서 Optimistic Read의 검증 실패가 줄어듦
+ * 큐도 ArrayBlockingQueue처럼 모든 put()과 drainTo()가 Lock 하나를 거치면 경합이 큐의 Lock으로 옮겨갈 뿐이므로,
+ * Writer끼리는 tail CAS로 칸만 나눠 갖고 적용 스레드는 head에서 따로 꺼내는 Ring을 사용함 (적용 스레드가 잠들어 있을 때만 깨우는 Lock을 잡음)
+ * Future는 적용 스레드에서 완료되므로 thenApply() 등에 무거운 작업을 걸 때는 thenApplyAsync()를 사용해야 적용 스레드가 막히지 않음
+ * close() 이후의 제출은 IllegalStateException, close()와 동시에 제출되어 적용되지 못한 변경은 IllegalStateException으로 실패한 Future가 됨
+ * @field queue : 아직 적용되지 않은 변경 (여러 Writer -> 적용 스레드 1개)
+ * @field closed : close()가 호출됐는지, 한번 true가 되면 다시 false가 되지 않음
+ * @field submitting : closed 확인을 통과했지만 아직 큐에 넣지 못한 제출 수, 적용 스레드는 이 값이 0이 될 때까지 종료하지 않음
+ */
+@Slf4j
+public class AsyncInventoryDatabase implements InventoryStore, Closeable {
+    private static final int MAX_BATCH = 1024;
+    private static final Mutation POISON_PILL = new Mutation(0, 0, null);
+
+    private final int highestPrice;
+    private final FenwickInventoryDatabase store;
+    private final MpmcRingQueue<Mutation> queue;
+    private final Thread applyThread;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    public AsyncInventoryDatabase(int highestPrice, int queueCapacity) {
+        this.highestPrice = highestPrice;
+        this.store = new FenwickInventoryDatabase(highestPrice);
+        this.queue = new MpmcRingQueue<>(queueCapacity);
+
+        this.applyThread = new Thread(this::applyLoop, "inventory-apply");
+        applyThread.setDaemon(true);
+        applyThread.start();
+    }
+
+    /* 적용되면 true로 완료 */
+    public CompletableFuture<Boolean> submitAdd(int price) {
+        return submit(price, 1);
+    }
+
+    /* 재고가 없어서 삭제하지 못했으면 false로 완료 */
+    public CompletableFuture<Boolean> submitRemove(int price) {
+        return submit(price, -1);
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        return store.getNumberOfItemInPriceRange(lowerBound, upperBound);
+    }
+
+    /* 적용될 때까지 기다리는 동기 버전 */
+    @Override
+    public void addItem(int price) {
+        submitAdd(price).join();
+    }
+
+    @Override
+    public void removeItem(int price) {
+        submitRemove(price).join();
+    }
+
+    /* 이미 제출된 변경은 모두 적용한 뒤 적용 스레드를 종료, 여러번 호출해도 됨 */
+    @Override
+    public void close() {
+        try {
+            // POISON_PILL도 제출처럼 세어야, 적용 스레드가 먼저 끝나는 중이어도 큐를 비워주므로 put()이 막히지 않음
+            submitting.incrementAndGet();
+            try {
+                if (closed.compareAndSet(false, true)) queue.put(POISON_PILL);
+            } finally {
+                submitting.decrementAndGet();
+            }
+
+            applyThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Boolean> submit(int price, int delta) {
+        // 잘못된 가격이 적용 스레드까지 가서 배치 전체를 실패시키지 않도록 제출 시점에 확인
+        if (price < 0 || price > highestPrice) {
+            throw new IllegalArgumentException("가격은 0 ~ " + highestPrice + " 사이여야 함 : " + price);
+        }
+
+        CompletableFuture<Boolean> ack = new CompletableFuture<>();
+
+        // closed를 확인하기 전에 먼저 세고, 적용 스레드는 closed를 켠 뒤에 이 값이 0이 될 때까지 큐를 비우므로
+        // 확인을 통과한 변경은 close()와 겹치더라도 적용 스레드가 반드시 꺼내서 완료함
+        submitting.incrementAndGet();
+        try {
+            if (closed.get()) throw new IllegalStateException("이미 닫힌 AsyncInventoryDatabase");
+            queue.put(new Mutation(price, delta, ack));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ack.completeExceptionally(e);
+        } finally {
+            submitting.decrementAndGet();
+        }
+
+        return ack;
+    }
+
+    /* 적용 스레드 : 하나를 기다렸다가 큐에 쌓인 나머지를 poll()로 한번에 꺼내서 배치로 적용 */
+    private void applyLoop() {
+        List<Mutation> batch = new ArrayList<>(MAX_BATCH);
+        int[] prices = new int[MAX_BATCH];
+        int[] deltas = new int[MAX_BATCH];
+        boolean[] applied = new boolean[MAX_BATCH];
+        boolean running = true;
+
+        try {
+            while (running) {
+                batch.add(queue.take());
+                pollInto(batch);
+
+                // POISON_PILL 뒤에 같이 꺼낸 변경도 close() 전에 제출된 것이므로 버리지 않고 함께 적용
+                if (batch.remove(POISON_PILL)) running = false;
+
+                apply(batch, prices, deltas, applied);
+            }
+
+            // MPMC 큐는 넣은 순서가 아니라 칸을 차지한 순서대로 나오므로, close()와 겹친 제출이 POISON_PILL 뒤에 들어올 수 있음
+            while (pollRemaining(batch)) {
+                apply(batch, prices, deltas, applied);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed.set(true); // 인터럽트로 끝난 경우에도 이후 제출이 영원히 기다리지 않도록
+            failPending(batch);
+        }
+    }
+
+    private void apply(List<Mutation> batch, int[] prices, int[] deltas, boolean[] applied) {
+        int size = batch.size();
+        for (int i = 0; i < size; i++) {
+            prices[i] = batch.get(i).price();
+            deltas[i] = batch.get(i).delta();
+        }
+
+        store.applyBatch(prices, deltas, applied, size);
+
+        // Future 완료는 Lock 밖에서
+        for (int i = 0; i < size; i++) {
+            batch.get(i).ack().complete(applied[i]);
+        }
+
+        batch.clear();
+    }
+
+    /* batch가 MAX_BATCH개가 되거나 큐가 빌 때까지 꺼냄 */
+    private void pollInto(List<Mutation> batch) {
+        Mutation mutation;
+
+        while (batch.size() < MAX_BATCH && (mutation = queue.poll()) != null) {
+            batch.add(mutation);
+        }
+    }
+
+    /* closed가 켜진 뒤 : 진행 중인 제출이 모두 큐에 들어올 때까지 기다리며 꺼냄, 제출이 끝났고 큐도 비었으면 false */
+    private boolean pollRemaining(List<Mutation> batch) {
+        while (true) {
+            int pending = submitting.get(); // 큐를 보기 전에 읽어야 0일 때 그 전에 넣은 변경을 놓치지 않음
+            pollInto(batch);
+
+            if (!batch.isEmpty()) return true;
+            if (pending == 0) return false;
+
+            Thread.onSpinWait(); // put()을 마치는 중인 제출이나 큐가 가득 차서 기다리는 제출
+        }
+    }
+
+    /* 적용하지 못하고 남은 변경의 Future를 모두 실패로 완료 */
+    private void failPending(List<Mutation> batch) {
+        do {
+            for (Mutation mutation : batch) {
+                if (mutation != POISON_PILL) {
+                    mutation.ack().completeExceptionally(new IllegalStateException("이미 닫힌 AsyncInventoryDatabase"));
+                }
+            }
+
+            batch.clear();
+        } while (pollRemaining(batch));
+    }
+
+    /* 큐에 들어가는 변경 1건 */
+    private record Mutation(int price, int delta, CompletableFuture<Boolean> ack) {
+    }
+
+    /* Writer 4 / Reader 28에서 동기 ReadWriteLock 버전과 비동기 배치 버전의 쓰기 / 조회 처리량 비교 */
+    public static void main(String[] args) throws InterruptedException {
+        long durationMillis = args.length > 0 ? Long.parseLong(args[0]) : 3000;
+        int writers = 4;
+        int readers = 28;
+
+        InventoryApplication.InventoryDatabase lockBased = new InventoryApplication.InventoryDatabase();
+        InventoryBenchmark.Result syncResult = InventoryBenchmark.run(lockBased, writers, readers, durationMillis);
+        log.info("[ReadWriteLock] reads : {}/s, writes : {}/s", syncResult.readsPerSecond(), syncResult.writesPerSecond());
+
+        try (AsyncInventoryDatabase async = new AsyncInventoryDatabase(HIGHEST_PRICE, 64 * 1024)) {
+            InventoryBenchmark.Result asyncResult = runAsync(async, writers, readers, durationMillis);
+            log.info("[Async] reads : {}/s, writes : {}/s", asyncResult.readsPerSecond(), asyncResult.writesPerSecond());
+        }
+    }
+
+    /**
+     * InventoryBenchmark.run()과 같은 부하, 단 Writer는 적용을 기다리지 않고 durationMillis 동안 계속 제출함 (마지막 Future만 기다림)
+     * 큐에 쌓인 쓰기가 모두 적용될 때까지 걸린 시간을 결과의 측정 시간으로 쓰고, Reader도 그때까지 계속 조회함
+     */
+    private static InventoryBenchmark.Result runAsync(AsyncInventoryDatabase db, int writers, int readers, long durationMillis)
+            throws InterruptedException {
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        CountDownLatch readersDone = new CountDownLatch(readers);
+        AtomicBoolean stopReading = new AtomicBoolean(false);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + durationMillis * 1_000_000;
+
+        for (int i = 0; i < writers; i++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CompletableFuture<Boolean> last = null;
+                long count = 0;
+
+                while (System.nanoTime() < deadline) {
+                    db.submitAdd(random.nextInt(HIGHEST_PRICE));
+                    last = db.submitRemove(random.nextInt(HIGHEST_PRICE));
+                    count += 2;
+                }
+
+                if (last != null) last.join(); // 적용 스레드는 순서대로 적용하므로 마지막 Future = 이 Writer의 모든 쓰기
+                writes.add(count);
+                writersDone.countDown();
+            }).start();
+        }
+
+        for (int i = 0; i < readers; i++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+
+                while (!stopReading.get()) {
+                    int upperBoundPrice = random.nextInt(HIGHEST_PRICE);
+                    int lowerBoundPrice = upperBoundPrice > 0 ? random.nextInt(upperBoundPrice) : 0;
+
+                    db.getNumberOfItemInPriceRange(lowerBoundPrice, upperBoundPrice);
+                    count++;
+                }
+
+                reads.add(count);
+                readersDone.countDown();
+            }).start();
+        }
+
+        writersDone.await();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        stopReading.set(true);
+        readersDone.await();
+
+        return new InventoryBenchmark.Result(reads.sum(), writes.sum(), elapsedMillis);
+    }
+}
@@ -0,0 +1,473 @@
+package com.thread.reentrantlock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static com.thread.reentrantlock.InventoryApplication.HIGHEST_PRICE;
+
+/**
+ * 재시작해도 재고가 유지되는 InventoryStore : Write-Ahead Log(WAL) + 주기적 스냅샷
+ *
+ * 쓰기 (Group Commit) :
+ * - addItem() / removeItem()은 lock 안에서 메모리 상태에 적용하고 LSN(로그 순번)을 받은 뒤 레코드를 pending 버퍼에 추가,
+ *   자기 LSN이 디스크에 기록(force)될 때까지 기다렸다가 반환함
+ * - WAL 스레드 하나가 pending 버퍼를 통째로 가져가 배치 1개로 기록하고 force()를 1번만 호출하므로,
+ *   fsync 하는 동안 들어온 다른 Writer들의 레코드는 다음 배치에 모여서 함께 기록됨 (Writer가 많을수록 fsync 1번당 레코드 수가 늘어남)
+ * - 메모리 적용과 LSN 발급을 같은 lock 안에서 하기 때문에 WAL 순서 = 메모리 적용 순서이고, 복구 시 같은 순서로 재생하면 같은 상태가 됨
+ * - 조회는 FenwickInventoryDatabase에서 바로 읽으므로 아직 force되지 않은 쓰기도 보일 수 있음
+ *
+ * 파일 (directory 아래) :
+ * - wal-{첫 LSN}.log : [firstLsn long][count int][레코드 (op byte + price int) * count][CRC32 int] 배치의 연속
+ * - snapshot-{LSN}.bin : [MAGIC int][lsn long][가격 수 int][가격별 재고 수 int...][CRC32 int]
+ * - 마지막 스냅샷 이후 SNAPSHOT_INTERVAL개 레코드가 쌓이면 WAL 스레드가 스냅샷을 쓰고 새 WAL 파일로 교체한 뒤 이전 파일들을 삭제함
+ *
+ * 시작 : 가장 최근의 유효한 스냅샷을 매핑해서 읽고, WAL에서 스냅샷 LSN 이후의 레코드만 재생함
+ *        마지막 배치가 중간에 잘렸거나(Crash) CRC가 맞지 않으면 그 앞까지만 재생하고 파일을 잘라냄
+ *        CRC가 맞는 배치 사이에 LSN이 비어있을 때만 파일이 사라진 것으로 보고 IOException으로 중단함
+ */
+@Slf4j
+public class DurableInventoryDatabase implements InventoryStore, Closeable {
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int RECORD_BYTES = 5;
+    private static final int BATCH_HEADER_BYTES = 12;
+    private static final int SNAPSHOT_MAGIC = 0x494E5631; // "INV1"
+    private static final long SNAPSHOT_INTERVAL = Long.getLong("inventory.snapshot.interval", 100_000);
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int[] counts; // 가격 -> 재고 수, 스냅샷용 (lock으로 보호)
+    private final FenwickInventoryDatabase store; // 조회용
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasPending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long pendingFirstLsn;
+    private long lastLsn; // 마지막으로 발급한 LSN
+    private long durableLsn; // force()까지 끝난 마지막 LSN
+    private long snapshotLsn; // 마지막 스냅샷의 LSN
+    private IOException failure;
+    private boolean closed = false;
+
+    // 아래는 WAL 스레드만 접근
+    private FileChannel wal;
+    private final ByteBuffer batchHeader = ByteBuffer.allocate(BATCH_HEADER_BYTES);
+    private final ByteBuffer batchTrailer = ByteBuffer.allocate(4);
+    private final CRC32 crc = new CRC32();
+    private final Thread walThread;
+
+    private DurableInventoryDatabase(Path directory, int[] counts, long lastLsn, long snapshotLsn, FileChannel wal) {
+        this.directory = directory;
+        this.counts = counts;
+        this.store = new FenwickInventoryDatabase(counts);
+        this.lastLsn = lastLsn;
+        this.durableLsn = lastLsn;
+        this.snapshotLsn = snapshotLsn;
+        this.wal = wal;
+
+        this.walThread = new Thread(this::walLoop, "inventory-wal");
+        walThread.setDaemon(true);
+        walThread.start();
+    }
+
+    /* directory의 스냅샷 + WAL로 상태를 복구해서 열기, 파일이 없으면 빈 저장소 */
+    public static DurableInventoryDatabase open(Path directory, int highestPrice) throws IOException {
+        Files.createDirectories(directory);
+
+        int[] counts = new int[highestPrice + 1];
+        long snapshotLsn = loadLatestSnapshot(directory, counts);
+        long lastLsn = snapshotLsn;
+
+        List<Path> segments = listFiles(directory, "wal-", ".log");
+        Path activeSegment = null;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            long[] result = replaySegment(segment, counts, lastLsn);
+            lastLsn = result[0];
+            activeSegment = segment;
+
+            // 잘린 배치 이후는 버림, 그 뒤의 세그먼트도 LSN이 이어지지 않으므로 삭제
+            if (result[1] >= 0) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(result[1]);
+                }
+                log.warn("WAL 끝부분 손상, {} 바이트 이후 잘라냄 : {}", result[1], segment);
+
+                for (Path after : segments.subList(i + 1, segments.size())) Files.delete(after);
+                break;
+            }
+        }
+
+        if (activeSegment == null) activeSegment = directory.resolve(segmentName(lastLsn + 1));
+
+        FileChannel wal = FileChannel.open(activeSegment, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        wal.position(wal.size());
+
+        log.info("재고 복구 완료 : snapshotLsn={}, lastLsn={} (WAL 재생 {}건)", snapshotLsn, lastLsn, lastLsn - snapshotLsn);
+        return new DurableInventoryDatabase(directory, counts, lastLsn, snapshotLsn, wal);
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        return store.getNumberOfItemInPriceRange(lowerBound, upperBound);
+    }
+
+    /* WAL에 기록될 때까지 블럭 */
+    @Override
+    public void addItem(int price) {
+        append(ADD, price);
+    }
+
+    /* 재고가 없으면 기록하지 않고 바로 반환 */
+    @Override
+    public void removeItem(int price) {
+        append(REMOVE, price);
+    }
+
+    private void append(byte op, int price) {
+        if (price < 0 || price >= counts.length) {
+            throw new IllegalArgumentException("가격은 0 ~ " + (counts.length - 1) + " 사이여야 함 : " + price);
+        }
+
+        lock.lock();
+
+        try {
+            if (failure != null) throw new UncheckedIOException("WAL 기록 실패 이후에는 쓸 수 없음", failure);
+            if (closed) throw new IllegalStateException("이미 닫힌 저장소");
+
+            if (op == ADD) {
+                counts[price]++;
+                store.addItem(price);
+            } else {
+                if (counts[price] == 0) return;
+                counts[price]--;
+                store.removeItem(price);
+            }
+
+            long lsn = ++lastLsn;
+            if (pending.position() == 0) pendingFirstLsn = lsn;
+            if (pending.remaining() < RECORD_BYTES) pending = grow(pending);
+            pending.put(op).putInt(price);
+            hasPending.signal();
+
+            while (durableLsn < lsn && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+
+            if (durableLsn < lsn) throw new UncheckedIOException("WAL 기록 실패", failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* 남은 레코드를 모두 기록한 뒤 WAL 스레드를 멈추고 파일을 닫음 */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            walThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        wal.close();
+    }
+
+    /* WAL 스레드 : pending 버퍼를 가져가 배치 1개로 기록 + force(), 기다리던 Writer를 모두 깨움 */
+    private void walLoop() {
+        ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        while (true) {
+            ByteBuffer batch;
+            long firstLsn;
+            long batchLastLsn;
+
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    hasPending.awaitUninterruptibly();
+                }
+
+                if (pending.position() == 0) return; // closed
+
+                batch = pending;
+                pending = spare;
+                firstLsn = pendingFirstLsn;
+                batchLastLsn = lastLsn;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writeBatch(batch, firstLsn);
+                wal.force(false);
+            } catch (IOException e) {
+                log.error("WAL 기록 실패 : {}", e.getMessage());
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            batch.clear();
+            spare = batch;
+
+            int[] snapshotCounts = null;
+            long lsnOfSnapshot = 0;
+
+            lock.lock();
+            try {
+                durableLsn = batchLastLsn;
+                flushed.signalAll();
+
+                if (durableLsn - snapshotLsn >= SNAPSHOT_INTERVAL) {
+                    snapshotCounts = counts.clone();
+                    lsnOfSnapshot = lastLsn;
+                    snapshotLsn = lsnOfSnapshot;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (snapshotCounts != null) {
+                try {
+                    writeSnapshot(snapshotCounts, lsnOfSnapshot);
+                    rotate(lsnOfSnapshot);
+                } catch (IOException e) {
+                    // 스냅샷이 실패해도 WAL에는 모든 레코드가 남아있으므로 복구에는 문제 없음
+                    log.error("스냅샷 기록 실패 : {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void writeBatch(ByteBuffer records, long firstLsn) throws IOException {
+        records.flip();
+
+        batchHeader.clear();
+        batchHeader.putLong(firstLsn).putInt(records.remaining() / RECORD_BYTES).flip();
+
+        crc.reset();
+        crc.update(batchHeader.duplicate());
+        crc.update(records.duplicate());
+
+        batchTrailer.clear();
+        batchTrailer.putInt((int) crc.getValue()).flip();
+
+        ByteBuffer[] buffers = {batchHeader, records, batchTrailer};
+        while (batchTrailer.hasRemaining()) {
+            wal.write(buffers);
+        }
+    }
+
+    /* 임시 파일에 쓰고 force() 후 이름을 바꿔서, 쓰다가 죽어도 불완전한 스냅샷이 남지 않게 함 */
+    private void writeSnapshot(int[] snapshotCounts, long lsn) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 + 4 + snapshotCounts.length * 4 + 4);
+        buffer.putInt(SNAPSHOT_MAGIC).putLong(lsn).putInt(snapshotCounts.length);
+        for (int count : snapshotCounts) buffer.putInt(count);
+
+        crc.reset();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue()).flip();
+
+        Path temporary = directory.resolve("snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+
+        Files.move(temporary, directory.resolve(snapshotName(lsn)), StandardCopyOption.ATOMIC_MOVE);
+        log.info("스냅샷 기록 : lsn={}", lsn);
+    }
+
+    /* 새 WAL 파일로 교체하고, 스냅샷에 모두 포함된 이전 WAL 파일과 이전 스냅샷을 삭제 */
+    private void rotate(long lsn) throws IOException {
+        Path next = directory.resolve(segmentName(lsn + 1));
+        FileChannel previous = wal;
+
+        wal = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        wal.position(wal.size());
+        previous.close();
+
+        for (Path segment : listFiles(directory, "wal-", ".log")) {
+            if (!segment.equals(next)) Files.delete(segment);
+        }
+
+        Path current = directory.resolve(snapshotName(lsn));
+        for (Path snapshot : listFiles(directory, "snapshot-", ".bin")) {
+            if (!snapshot.equals(current)) Files.delete(snapshot);
+        }
+    }
+
+    /* 가장 최근의 유효한 스냅샷을 매핑해서 counts에 채우고 LSN을 반환, 없으면 0 */
+    private static long loadLatestSnapshot(Path directory, int[] counts) throws IOException {
+        List<Path> snapshots = listFiles(directory, "snapshot-", ".bin");
+
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try (FileChannel channel = FileChannel.open(snapshots.get(i), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size != 4 + 8 + 4 + counts.length * 4L + 4) continue;
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(0, (int) size - 4));
+
+                if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt((int) size - 4) != (int) crc.getValue()) continue;
+
+                long lsn = buffer.getLong();
+                if (buffer.getInt() != counts.length) continue;
+
+                for (int price = 0; price < counts.length; price++) counts[price] = buffer.getInt();
+
+                return lsn;
+            }
+        }
+
+        return 0;
+    }
+
+    /*
+     * segment의 배치를 순서대로 재생해서 counts에 반영 (afterLsn 이하의 레코드는 스냅샷에 이미 포함되어 있으므로 건너뜀)
+     * 반환값 : [마지막 LSN, 잘라낼 위치 (손상된 배치가 없으면 -1)]
+     */
+    private static long[] replaySegment(Path segment, int[] counts, long afterLsn) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return new long[]{afterLsn, -1};
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            long lastLsn = afterLsn;
+
+            while (buffer.hasRemaining()) {
+                int batchStart = buffer.position();
+                if (buffer.remaining() < BATCH_HEADER_BYTES) return new long[]{lastLsn, batchStart};
+
+                long firstLsn = buffer.getLong();
+                int count = buffer.getInt();
+                long bodyBytes = (long) count * RECORD_BYTES; // 헤더가 쓰레기면 count * 5가 int를 넘칠 수 있음
+
+                if (count < 0 || buffer.remaining() < bodyBytes + 4) return new long[]{lastLsn, batchStart};
+
+                // 헤더의 값(firstLsn 포함)은 CRC가 맞아야 믿을 수 있으므로 CRC가 틀린 배치는 LSN을 보지 않고 유효한 데이터의 끝으로 취급
+                int batchBytes = BATCH_HEADER_BYTES + (int) bodyBytes;
+                crc.reset();
+                crc.update(buffer.slice(batchStart, batchBytes));
+                if (buffer.getInt(batchStart + batchBytes) != (int) crc.getValue()) {
+                    return new long[]{lastLsn, batchStart};
+                }
+
+                // 온전한 배치인데 LSN이 비어있으면 잘린 꼬리가 아니라 스냅샷이나 WAL 파일이 사라진 것이므로 잘라내지 않고 중단
+                if (firstLsn > lastLsn + 1) {
+                    throw new IOException("WAL LSN 누락 : " + (lastLsn + 1) + " ~ " + (firstLsn - 1) + " (" + segment + ")");
+                }
+
+                for (int i = 0; i < count; i++) {
+                    byte op = buffer.get();
+                    int price = buffer.getInt();
+                    long lsn = firstLsn + i;
+
+                    if (lsn <= lastLsn) continue;
+
+                    if (op == ADD) counts[price]++;
+                    else if (counts[price] > 0) counts[price]--;
+                    lastLsn = lsn;
+                }
+
+                buffer.getInt(); // CRC
+            }
+
+            return new long[]{lastLsn, -1};
+        }
+    }
+
+    private static List<Path> listFiles(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // 파일 이름의 LSN이 0으로 채운 고정 길이라 이름순 = LSN순
+            return new ArrayList<>(files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().toList());
+        }
+    }
+
+    private static String segmentName(long firstLsn) {
+        return String.format("wal-%020d.log", firstLsn);
+    }
+
+    private static String snapshotName(long lsn) {
+        return String.format("snapshot-%020d.bin", lsn);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    /* Writer 8개로 아이템 10만개를 추가한 뒤 다시 열어서 복구 시간과 결과를 확인 */
+    public static void main(String[] args) throws Exception {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("inventory");
+        int numberOfWriters = 8;
+        int itemsPerWriter = 100000 / numberOfWriters;
+
+        long expected;
+        try (DurableInventoryDatabase db = open(directory, HIGHEST_PRICE)) {
+            List<Thread> writers = new ArrayList<>();
+
+            for (int i = 0; i < numberOfWriters; i++) {
+                writers.add(new Thread(() -> {
+                    for (int j = 0; j < itemsPerWriter; j++) {
+                        db.addItem(ThreadLocalRandom.current().nextInt(HIGHEST_PRICE));
+                    }
+                }));
+            }
+
+            long startTime = System.nanoTime();
+            for (Thread writer : writers) writer.start();
+            for (Thread writer : writers) writer.join();
+            long elapsed = System.nanoTime() - startTime;
+
+            expected = db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE);
+            log.info("Writer {}개, {}건 기록 : {}ms, {} writes/s", numberOfWriters, numberOfWriters * itemsPerWriter,
+                    elapsed / 1_000_000, (long) numberOfWriters * itemsPerWriter * 1_000_000_000L / elapsed);
+        }
+
+        long startTime = System.nanoTime();
+        try (DurableInventoryDatabase db = open(directory, HIGHEST_PRICE)) {
+            log.info("복구 시간 : {}ms, 재고 수 : {} (기대값 {})", (System.nanoTime() - startTime) / 1_000_000,
+                    db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE), expected);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.thread.reentrantlock;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fenwick Tree(Binary Indexed Tree) 버전 : 가격별 재고 수의 누적 합을 long[] 트리에 두어 추가/삭제/범위 합이 모두 O(log 가격 범위)
+ * TreeMap의 subMap()은 범위 안의 Entry를 모두 순회하면서 Integer를 언박싱하지만, 여기서는 조회 1번이 배열 접근 약 2 * log2(1001) = 20번이고 할당이 없음
+ * 조회가 짧기 때문에 StampedLock의 Optimistic Read가 쓰기와 겹칠 확률도 낮고, 쓰기 Lock을 잡는 구간도 배열 접근 10번 정도로 짧음
+ * @field tree : tree[i] = (i - (i & -i), i] 구간(1부터 시작하는 인덱스, 가격 + 1)의 재고 수 합
+ * @field counts : 가격 -> 재고 수, 삭제 시 음수가 되지 않도록 확인하는 용도
+ */
+public class FenwickInventoryDatabase implements InventoryStore {
+    private static final int MAX_OPTIMISTIC_ATTEMPTS = 2;
+
+    private final long[] tree;
+    private final int[] counts;
+    private final StampedLock lock = new StampedLock();
+
+    public FenwickInventoryDatabase(int highestPrice) {
+        this.tree = new long[highestPrice + 2];
+        this.counts = new int[highestPrice + 1];
+    }
+
+    /* 가격별 재고 수 배열로 한번에 생성, addItem()을 재고 수만큼 반복하는 대신 O(가격 범위)로 트리를 채움 (스냅샷 복구용) */
+    FenwickInventoryDatabase(int[] initialCounts) {
+        this.counts = initialCounts.clone();
+        this.tree = new long[counts.length + 1];
+
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += counts[i - 1];
+
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        int from = Math.max(lowerBound, 0);
+        int to = Math.min(upperBound, counts.length - 1);
+        if (from > to) return 0;
+
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) continue;
+
+            long sum = prefixSum(to) - prefixSum(from - 1);
+            if (lock.validate(stamp)) return (int) sum;
+        }
+
+        long stamp = lock.readLock();
+
+        try {
+            return (int) (prefixSum(to) - prefixSum(from - 1));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void addItem(int price) {
+        checkPrice(price);
+        long stamp = lock.writeLock();
+
+        try {
+            counts[price]++;
+            update(price, 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeItem(int price) {
+        checkPrice(price);
+        long stamp = lock.writeLock();
+
+        try {
+            if (counts[price] == 0) return;
+
+            counts[price]--;
+            update(price, -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* 여러 변경을 쓰기 Lock 1번으로 순서대로 적용, deltas[i]는 1(추가) 또는 -1(삭제), 재고가 없어 적용되지 않은 삭제는 applied[i] = false */
+    void applyBatch(int[] prices, int[] deltas, boolean[] applied, int size) {
+        for (int i = 0; i < size; i++) checkPrice(prices[i]);
+
+        long stamp = lock.writeLock();
+
+        try {
+            for (int i = 0; i < size; i++) {
+                int price = prices[i];
+                applied[i] = deltas[i] > 0 || counts[price] > 0;
+
+                if (applied[i]) {
+                    counts[price] += deltas[i];
+                    update(price, deltas[i]);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* 가격이 0 ~ price인 재고 수의 합, price가 음수면 0 */
+    private long prefixSum(int price) {
+        long sum = 0;
+
+        for (int i = price + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+
+        return sum;
+    }
+
+    /* price를 포함하는 모든 구간 노드에 delta를 더함 */
+    private void update(int price, int delta) {
+        for (int i = price + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void checkPrice(int price) {
+        if (price < 0 || price >= counts.length) {
+            throw new IllegalArgumentException("가격은 0 ~ " + (counts.length - 1) + " 사이여야 함 : " + price);
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package com.thread.reentrantlock;
 
+import com.thread.contention.InstrumentedReadWriteLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Slf4j
 @Component
 public class InventoryApplication {
-    private static final int HIGHEST_PRICE = 1000;
+    static final int HIGHEST_PRICE = 1000;
 
-    public static class InventoryDatabase {
+    public static class InventoryDatabase implements InventoryStore {
         private TreeMap<Integer, Integer> inventory = new TreeMap<>();
-        private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-        private Lock readLock = lock.readLock();
-        private Lock writeLock = lock.writeLock();
+        private ReadWriteLock lock;
+        private Lock readLock;
+        private Lock writeLock;
 //        private ReentrantLock lock = new ReentrantLock();
 
+        /* 계측하지 않는 기본 버전, InventoryBenchmark 등에서 다른 구현체와 비교하는 기준선 */
+        public InventoryDatabase() {
+            this(new ReentrantReadWriteLock());
+        }
+
+        /* 읽기 / 쓰기 경합 지표를 남기려면 InstrumentedReadWriteLock을 넘김 */
+        public InventoryDatabase(ReadWriteLock lock) {
+            this.lock = lock;
+            this.readLock = lock.readLock();
+            this.writeLock = lock.writeLock();
+        }
+
+        @Override
         public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
             readLock.lock();
 
@@ -27,7 +42,8 @@ public class InventoryApplication {
                 Integer fromKey = inventory.ceilingKey(lowerBound); // 하한가와 같거나 큰 값중 가장 큰 키의 수 = 트리내의 최저가
                 Integer toKey = inventory.floorKey(upperBound); // 상한가와 같거나 작은 값중 가장 큰 키의 수 = 트리내의 최고가
 
-                if (fromKey == null && toKey == null) return 0;
+                // 범위 안에 키가 하나도 없으면 fromKey > toKey가 되어 subMap()이 예외를 던지므로 먼저 걸러냄
+                if (fromKey == null || toKey == null || fromKey > toKey) return 0;
 
                 // 위에서 뽑은 상한가와 하한가를 NavigableMap에 새로 기록
                 NavigableMap<Integer, Integer> rangeOfPrices = inventory.subMap(fromKey, true, toKey, true);
@@ -44,6 +60,7 @@ public class InventoryApplication {
             }
         }
 
+        @Override
         public void addItem(int price) {
             writeLock.lock();
 
@@ -54,6 +71,7 @@ public class InventoryApplication {
             }
         }
 
+        @Override
         public void removeItem(int price) {
             writeLock.lock();
 
@@ -70,7 +88,7 @@ public class InventoryApplication {
     }
 
     public static void main(String[] args) {
-        InventoryDatabase db = new InventoryDatabase();
+        InventoryDatabase db = new InventoryDatabase(new InstrumentedReadWriteLock("InventoryDatabase")); // 읽기 / 쓰기 경합 지표 기록
         Random random = new Random();
 
         // 실제 환경 벤치마크 테스트를 위해 내부 트리에 초기 키 넣기
@@ -0,0 +1,107 @@
+package com.thread.reentrantlock;
+
+import com.thread.contention.InstrumentedReadWriteLock;
+import com.thread.share.ThroughputHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static com.thread.reentrantlock.InventoryApplication.HIGHEST_PRICE;
+
+/**
+ * InventoryStore 구현체들을 같은 부하로 비교하는 벤치마크
+ * 구현체마다 아이템 10만개를 미리 넣고, Writer는 랜덤 가격 추가/삭제를, Reader는 랜덤 가격 범위 조회를 정해진 시간 동안 쉬지 않고 반복함
+ * 시나리오 : Writer 1 / Reader 7, Writer 4 / Reader 28 (InventoryApplication.main의 1:7 비율을 유지하며 스레드 수만 늘림),
+ *           Writer 8 / Reader 8 (쓰기가 몰리는 플래시 세일 패턴)
+ * 기준선인 ReadWriteLock은 계측하지 않은 버전이고, ReadWriteLock+metrics와의 차이가 경합 지표 기록 비용
+ *
+ * 실행 인자 : [측정 시간 ms] [시나리오 "writers:readers,..."]
+ */
+@Slf4j
+public class InventoryBenchmark {
+    private static final int INITIAL_ITEMS = 100000;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final int SHARDS = Integer.getInteger("inventory.shards", 16);
+
+    public static void main(String[] args) throws InterruptedException {
+        long durationMillis = args.length > 0 ? Long.parseLong(args[0]) : 3000;
+        String scenarios = args.length > 1 ? args[1] : "1:7,4:28,8:8";
+
+        Map<String, Supplier<InventoryStore>> stores = new LinkedHashMap<>();
+        stores.put("ReadWriteLock", InventoryApplication.InventoryDatabase::new);
+        stores.put("ReadWriteLock+metrics", () ->
+                new InventoryApplication.InventoryDatabase(new InstrumentedReadWriteLock("InventoryBenchmark")));
+        stores.put("StampedLock", () -> new StampedInventoryDatabase(HIGHEST_PRICE));
+        stores.put("CopyOnWrite", () -> new SnapshotInventoryDatabase(HIGHEST_PRICE));
+        stores.put("Fenwick", () -> new FenwickInventoryDatabase(HIGHEST_PRICE));
+        stores.put("Sharded(" + SHARDS + ")", () -> new ShardedInventoryDatabase(HIGHEST_PRICE, SHARDS));
+
+        for (String scenario : scenarios.split(",")) {
+            String[] threads = scenario.split(":");
+            int writers = Integer.parseInt(threads[0]);
+            int readers = Integer.parseInt(threads[1]);
+
+            log.info("===== Writer {} / Reader {} =====", writers, readers);
+
+            for (Map.Entry<String, Supplier<InventoryStore>> entry : stores.entrySet()) {
+                InventoryStore store = populate(entry.getValue().get());
+
+                run(store, writers, readers, WARMUP_MILLIS);
+                Result result = run(store, writers, readers, durationMillis);
+
+                log.info("[{}] reads : {}/s, writes : {}/s", entry.getKey(),
+                        String.format("%,d", result.readsPerSecond()), String.format("%,d", result.writesPerSecond()));
+            }
+        }
+    }
+
+    private static InventoryStore populate(InventoryStore store) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < INITIAL_ITEMS; i++) {
+            store.addItem(random.nextInt(HIGHEST_PRICE));
+        }
+
+        return store;
+    }
+
+    /* 모든 스레드를 동시에 출발시켜 durationMillis 동안 실행한 뒤 조회 / 쓰기 횟수를 집계 */
+    public static Result run(InventoryStore store, int writers, int readers, long durationMillis) throws InterruptedException {
+        ThroughputHarness.Group writeGroup = new ThroughputHarness.Group(writers, 2, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                store.addItem(random.nextInt(HIGHEST_PRICE));
+                store.removeItem(random.nextInt(HIGHEST_PRICE));
+            };
+        });
+
+        ThroughputHarness.Group readGroup = new ThroughputHarness.Group(readers, 1, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                int upperBoundPrice = random.nextInt(HIGHEST_PRICE);
+                int lowerBoundPrice = upperBoundPrice > 0 ? random.nextInt(upperBoundPrice) : 0;
+
+                store.getNumberOfItemInPriceRange(lowerBoundPrice, upperBoundPrice);
+            };
+        });
+
+        long[] counts = ThroughputHarness.run(durationMillis, writeGroup, readGroup);
+
+        return new Result(counts[1], counts[0], durationMillis);
+    }
+
+    /* 벤치마크 결과 */
+    public record Result(long reads, long writes, long durationMillis) {
+
+        public long readsPerSecond() {
+            return reads * 1000 / durationMillis;
+        }
+
+        public long writesPerSecond() {
+            return writes * 1000 / durationMillis;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.thread.reentrantlock;
+
+/* 가격별 재고 수를 관리하는 저장소의 추상화, 같은 벤치마크로 여러 동기화 방식을 비교하기 위함 (구현체는 여러 스레드에서 동시에 호출 가능해야 함) */
+public interface InventoryStore {
+
+    /* 가격이 [lowerBound, upperBound]인 아이템 수의 합 */
+    int getNumberOfItemInPriceRange(int lowerBound, int upperBound);
+
+    void addItem(int price);
+
+    /* 해당 가격의 아이템이 없으면 아무것도 하지 않음 (재고 수는 음수가 되지 않음) */
+    void removeItem(int price);
+}
@@ -0,0 +1,166 @@
+package com.thread.reentrantlock;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가격 범위를 연속된 N개 구간(Shard)으로 나누고 Shard마다 독립된 StampedLock을 두는 버전
+ * 서로 다른 Shard의 가격을 건드리는 Writer는 서로를 기다리지 않으므로 쓰기 처리량이 Shard 수에 비례해 늘어남
+ * 범위 조회는 범위에 걸친 Shard만 차례로 읽고, 범위가 Shard 전체를 덮으면 배열을 순회하지 않고 total만 읽음
+ *
+ * 일관성 :
+ * - Shard 하나의 값은 항상 그 Shard의 어떤 시점의 상태임 (Shard 안에서는 Linearizable)
+ * - getNumberOfItemInPriceRange()는 Shard들을 서로 다른 시점에 읽기 때문에 전체로는 하나의 시점이 아님
+ *   예) 조회 도중 다른 Shard의 가격 A 삭제 + 가격 B 추가가 일어나면 둘 다 반영되거나, 하나만 반영되거나, 둘 다 반영되지 않은 값이 나올 수 있음
+ *   단 쓰기 1건은 Shard 하나에만 적용되므로, 조회 중에 끝난 쓰기는 반영되거나 안되거나 둘 중 하나이고 절반만 보이는 일은 없음
+ * - 여러 Shard에 걸친 시점 일관성이 필요하면 getConsistentNumberOfItemInPriceRange()를 사용 (관련 Shard의 읽기 Lock을 순서대로 모두 잡음)
+ * @field shardWidth : Shard 하나가 담당하는 가격 수, 가격 p는 p / shardWidth번째 Shard
+ */
+public class ShardedInventoryDatabase implements InventoryStore {
+    private final Shard[] shards;
+    private final int shardWidth;
+    private final int highestPrice;
+
+    public ShardedInventoryDatabase(int highestPrice, int numberOfShards) {
+        if (numberOfShards <= 0) throw new IllegalArgumentException("Shard 수는 1 이상이어야 함 : " + numberOfShards);
+
+        this.highestPrice = highestPrice;
+        this.shardWidth = (highestPrice + numberOfShards) / numberOfShards; // 가격 0 ~ highestPrice를 올림 나눗셈
+        this.shards = new Shard[(highestPrice + shardWidth) / shardWidth];
+
+        for (int i = 0; i < shards.length; i++) {
+            int firstPrice = i * shardWidth;
+            shards[i] = new Shard(firstPrice, Math.min(shardWidth, highestPrice + 1 - firstPrice));
+        }
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        int from = Math.max(lowerBound, 0);
+        int to = Math.min(upperBound, highestPrice);
+        if (from > to) return 0;
+
+        long sum = 0;
+        for (int i = from / shardWidth; i <= to / shardWidth; i++) {
+            sum += shards[i].sum(from, to);
+        }
+
+        return (int) sum;
+    }
+
+    /* 범위에 걸친 Shard의 읽기 Lock을 번호 순서대로 모두 잡은 뒤 합산, 결과는 한 시점의 상태와 같음 (대신 그동안 해당 Shard의 쓰기가 멈춤) */
+    public int getConsistentNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        int from = Math.max(lowerBound, 0);
+        int to = Math.min(upperBound, highestPrice);
+        if (from > to) return 0;
+
+        int firstShard = from / shardWidth;
+        int lastShard = to / shardWidth;
+        long[] stamps = new long[lastShard - firstShard + 1];
+
+        // Writer는 Shard 하나의 Lock만 잡으므로 순서대로만 잡으면 Deadlock이 생기지 않음
+        for (int i = firstShard; i <= lastShard; i++) {
+            stamps[i - firstShard] = shards[i].lock.readLock();
+        }
+
+        try {
+            long sum = 0;
+            for (int i = firstShard; i <= lastShard; i++) {
+                sum += shards[i].sumLocked(from, to);
+            }
+            return (int) sum;
+        } finally {
+            for (int i = lastShard; i >= firstShard; i--) {
+                shards[i].lock.unlockRead(stamps[i - firstShard]);
+            }
+        }
+    }
+
+    @Override
+    public void addItem(int price) {
+        shardOf(price).add(price, 1);
+    }
+
+    @Override
+    public void removeItem(int price) {
+        shardOf(price).add(price, -1);
+    }
+
+    public int getNumberOfShards() {
+        return shards.length;
+    }
+
+    private Shard shardOf(int price) {
+        if (price < 0 || price > highestPrice) {
+            throw new IllegalArgumentException("가격은 0 ~ " + highestPrice + " 사이여야 함 : " + price);
+        }
+
+        return shards[price / shardWidth];
+    }
+
+    /**
+     * 가격 구간 하나, 배열과 Lock을 Shard 객체마다 따로 할당해서 Shard끼리 같은 캐시 라인을 공유할 가능성을 줄임
+     * @field counts : counts[i] = 가격 firstPrice + i의 재고 수
+     * @field total : Shard 전체 재고 수, 조회 범위가 Shard를 모두 덮을 때 사용
+     */
+    private static class Shard {
+        private static final int MAX_OPTIMISTIC_ATTEMPTS = 2;
+
+        private final StampedLock lock = new StampedLock();
+        private final int firstPrice;
+        private final int[] counts;
+        private long total = 0;
+
+        Shard(int firstPrice, int width) {
+            this.firstPrice = firstPrice;
+            this.counts = new int[width];
+        }
+
+        /* delta가 -1이면 재고가 있을 때만 감소 */
+        void add(int price, int delta) {
+            long stamp = lock.writeLock();
+
+            try {
+                int index = price - firstPrice;
+                if (delta < 0 && counts[index] == 0) return;
+
+                counts[index] += delta;
+                total += delta;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        long sum(int from, int to) {
+            for (int attempt = 0; attempt < MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+                long stamp = lock.tryOptimisticRead();
+                if (stamp == 0) continue;
+
+                long sum = sumLocked(from, to);
+                if (lock.validate(stamp)) return sum;
+            }
+
+            long stamp = lock.readLock();
+
+            try {
+                return sumLocked(from, to);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /* 호출자가 Lock을 잡았거나 Optimistic Read로 검증하는 경우에만 호출 */
+        long sumLocked(int from, int to) {
+            int start = Math.max(from - firstPrice, 0);
+            int end = Math.min(to - firstPrice, counts.length - 1);
+
+            if (start == 0 && end == counts.length - 1) return total;
+
+            long sum = 0;
+            for (int i = start; i <= end; i++) {
+                sum += counts[i];
+            }
+
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.thread.reentrantlock;
+
+/**
+ * Copy-On-Write 버전 : 쓰기마다 누적 합(Prefix Sum) 배열을 새로 만들어 volatile 참조 하나로 교체
+ * 조회는 현재 스냅샷 참조를 한번 읽고 prefix[upper + 1] - prefix[lower]만 계산하므로 Lock도, 공유 메모리 쓰기도, 재시도도 없음
+ * 대신 쓰기 1번의 비용이 O(가격 범위) 배열 복사이고 Writer끼리는 synchronized로 직렬화되므로, 조회가 쓰기보다 압도적으로 많을 때 적합함
+ * @field prefix : prefix[i] = 가격이 i 미만인 아이템 수의 합, 한번 발행된 배열은 다시 수정하지 않음
+ */
+public class SnapshotInventoryDatabase implements InventoryStore {
+    private volatile int[] prefix;
+
+    public SnapshotInventoryDatabase(int highestPrice) {
+        this.prefix = new int[highestPrice + 2];
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        int[] snapshot = prefix; // 같은 스냅샷으로 계산하기 위해 volatile 읽기는 한번만
+        int from = Math.max(lowerBound, 0);
+        int to = Math.min(upperBound, snapshot.length - 2);
+        if (from > to) return 0;
+
+        return snapshot[to + 1] - snapshot[from];
+    }
+
+    @Override
+    public synchronized void addItem(int price) {
+        publish(price, 1);
+    }
+
+    @Override
+    public synchronized void removeItem(int price) {
+        checkPrice(price);
+        int[] snapshot = prefix;
+
+        if (snapshot[price + 1] - snapshot[price] > 0) publish(price, -1);
+    }
+
+    /* price 이후의 누적 합에 delta를 더한 새 배열을 발행 */
+    private void publish(int price, int delta) {
+        checkPrice(price);
+        int[] next = prefix.clone();
+
+        for (int i = price + 1; i < next.length; i++) {
+            next[i] += delta;
+        }
+
+        prefix = next;
+    }
+
+    private void checkPrice(int price) {
+        if (price < 0 || price > prefix.length - 2) {
+            throw new IllegalArgumentException("가격은 0 ~ " + (prefix.length - 2) + " 사이여야 함 : " + price);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.thread.reentrantlock;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 가격이 0 ~ highestPrice로 제한된다는 점을 이용해 TreeMap 대신 가격별 int[] 배열에 재고 수를 두고 StampedLock으로 보호하는 버전
+ * 조회는 Optimistic Read로 Lock 상태를 바꾸지 않고 배열을 읽은 뒤 validate()로 그 사이 쓰기가 있었는지만 확인함
+ * ReentrantReadWriteLock의 읽기 Lock은 조회마다 공유 카운터를 CAS로 올리고 내리기 때문에 Reader끼리도 같은 캐시 라인을 두고 경합하지만,
+ * Optimistic Read는 상태를 읽기만 하므로 쓰기가 없는 동안에는 Reader 수만큼 그대로 확장됨
+ * 검증에 MAX_OPTIMISTIC_ATTEMPTS번 실패하면(쓰기가 몰리는 상황) 일반 읽기 Lock으로 전환해서 Reader가 계속 재시도하며 굶지 않게 함
+ * @field counts : 가격 -> 재고 수, Optimistic Read 중에는 쓰는 중인 값을 읽을 수 있으므로 validate() 이후에만 결과를 사용
+ */
+public class StampedInventoryDatabase implements InventoryStore {
+    private static final int MAX_OPTIMISTIC_ATTEMPTS = 2;
+
+    private final int[] counts;
+    private final StampedLock lock = new StampedLock();
+
+    public StampedInventoryDatabase(int highestPrice) {
+        this.counts = new int[highestPrice + 1];
+    }
+
+    @Override
+    public int getNumberOfItemInPriceRange(int lowerBound, int upperBound) {
+        int from = Math.max(lowerBound, 0);
+        int to = Math.min(upperBound, counts.length - 1);
+        if (from > to) return 0;
+
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) continue; // 쓰기 Lock이 잡혀있는 중
+
+            int sum = sum(from, to);
+            if (lock.validate(stamp)) return sum;
+        }
+
+        long stamp = lock.readLock();
+
+        try {
+            return sum(from, to);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void addItem(int price) {
+        checkPrice(price);
+        long stamp = lock.writeLock();
+
+        try {
+            counts[price]++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeItem(int price) {
+        checkPrice(price);
+        long stamp = lock.writeLock();
+
+        try {
+            if (counts[price] > 0) counts[price]--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int sum(int from, int to) {
+        int sum = 0;
+
+        for (int price = from; price <= to; price++) {
+            sum += counts[price];
+        }
+
+        return sum;
+    }
+
+    private void checkPrice(int price) {
+        if (price < 0 || price >= counts.length) {
+            throw new IllegalArgumentException("가격은 0 ~ " + (counts.length - 1) + " 사이여야 함 : " + price);
+        }
+    }
+}
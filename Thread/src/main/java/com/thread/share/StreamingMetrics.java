@@ -0,0 +1,224 @@
+package com.thread.share;
+
+import lombok.Getter;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 경합 없이 샘플을 기록하는 스트리밍 메트릭, 스레드마다 자기 전용 Recorder에만 기록하고 snapshot()이 전부 합쳐서 보여줌
+ * 기록하는 쪽은 자기 Recorder의 StampedLock 쓰기 락만 잡는데, 다른 기록 스레드는 이 락을 잡지 않고 읽는 쪽은
+ * Optimistic Read만 쓰기 때문에 쓰기 락은 항상 한번에 잡힘 (기록 스레드끼리도, 출력 스레드 때문에도 기다리지 않음)
+ * 평균은 long 합계 / 개수로, 분산은 Welford 방식의 편차 제곱합(M2)으로 계산해 평균 * 개수 방식의 누적 오차가 없음
+ * 백분위는 Log-Linear 버킷(2의 거듭제곱 구간을 SUB_BUCKET_COUNT개로 분할, 상대 오차 약 6%)으로 계산
+ * @field recorders : 지금까지 기록한 적 있는 스레드별 Recorder
+ * @field localRecorder : 현재 스레드의 Recorder, 처음 기록할 때 만들어서 recorders에 등록
+ * @field retired : 종료된 스레드의 Recorder를 합쳐둔 누적값, snapshot()할 때 옮겨 담고 recorders에서 뺌
+ */
+public class StreamingMetrics {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT * 2;
+
+    private final CopyOnWriteArrayList<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Recorder> localRecorder = ThreadLocal.withInitial(this::register);
+    private final Accumulator retired = new Accumulator();
+
+    /* 현재 스레드의 Recorder에 샘플 기록, 음수는 히스토그램에서 0으로 취급 */
+    public void record(long value) {
+        localRecorder.get().record(value);
+    }
+
+    /* 모든 Recorder를 합친 스냅샷, 출력 스레드끼리만 직렬화되고 기록 스레드는 막지 않음 */
+    public synchronized Snapshot snapshot() {
+        Accumulator merged = new Accumulator();
+        merged.merge(retired);
+
+        for (Recorder recorder : recorders) {
+            boolean finished = !recorder.owner.isAlive(); // 읽기 전에 확인해야 마지막 기록까지 포함됨
+            Accumulator copy = recorder.read();
+
+            merged.merge(copy);
+            if (finished) {
+                retired.merge(copy);
+                recorders.remove(recorder);
+            }
+        }
+
+        return merged.toSnapshot();
+    }
+
+    private Recorder register() {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /* 2 * SUB_BUCKET_COUNT 미만은 값 그대로, 그 이상은 (Octave, 상위 SUB_BUCKET_BITS + 1 비트)로 버킷 결정 */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) Math.max(0, value);
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> bucket);
+
+        return bucket * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) return index;
+
+        int bucket = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+        return ((subBucket + 1) << bucket) - 1;
+    }
+
+    /**
+     * 스레드 1개 전용 기록 공간, owner 스레드만 record()를 호출함
+     * 개수 / 합계 / 최소 / 최대 / 평균 / M2는 서로 맞아야 하므로 StampedLock으로 묶고,
+     * 버킷은 각각 독립적인 카운터라 AtomicLongArray에 lazySet으로만 씀 (쓰는 스레드가 1개라 CAS가 필요 없음)
+     */
+    private static class Recorder {
+        private final Thread owner;
+        private final StampedLock lock = new StampedLock();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private long count = 0;
+        private long sum = 0;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private double mean = 0.0;
+        private double m2 = 0.0;
+
+        Recorder(Thread owner) {
+            this.owner = owner;
+        }
+
+        void record(long value) {
+            int index = indexOf(value);
+            buckets.lazySet(index, buckets.get(index) + 1);
+
+            long stamp = lock.writeLock();
+            try {
+                count++;
+                sum += value;
+                if (value < min) min = value;
+                if (value > max) max = value;
+
+                double delta = value - mean;
+                mean += delta / count;
+                m2 += delta * (value - mean);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /* 쓰기 중이었거나 읽는 동안 쓰기가 끼어들면 다시 읽음, 쓰기 구간이 짧아 금방 성공함 */
+        Accumulator read() {
+            Accumulator copy = new Accumulator();
+
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+
+                if (stamp != 0) {
+                    copy.count = count;
+                    copy.sum = sum;
+                    copy.min = min;
+                    copy.max = max;
+                    copy.mean = mean;
+                    copy.m2 = m2;
+
+                    if (lock.validate(stamp)) break;
+                }
+
+                Thread.onSpinWait();
+            }
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy.buckets[i] = buckets.get(i);
+            }
+
+            return copy;
+        }
+    }
+
+    /* Recorder 여러개를 합치는 용도, 평균 / M2는 Chan의 병렬 분산 공식으로 합침 */
+    private static class Accumulator {
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long count = 0;
+        private long sum = 0;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private double mean = 0.0;
+        private double m2 = 0.0;
+
+        void merge(Accumulator other) {
+            if (other.count == 0) return;
+
+            long total = count + other.count;
+            double delta = other.mean - mean;
+
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+            mean += delta * other.count / total;
+            count = total;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] += other.buckets[i];
+            }
+        }
+
+        Snapshot toSnapshot() {
+            return new Snapshot(count, count == 0 ? 0 : min, count == 0 ? 0 : max,
+                    count == 0 ? 0.0 : (double) sum / count, count == 0 ? 0.0 : m2 / count, buckets.clone());
+        }
+    }
+
+    /**
+     * snapshot() 시점의 합산 결과, 이후 기록과는 무관한 불변 객체
+     * 버킷은 Recorder의 잠금 밖에서 읽기 때문에 버킷 합계가 count와 기록 중인 샘플 몇개만큼 다를 수 있음
+     * @field variance : 모분산 (M2 / count)
+     */
+    public static class Snapshot {
+        @Getter private final long count;
+        @Getter private final long min;
+        @Getter private final long max;
+        @Getter private final double mean;
+        @Getter private final double variance;
+        private final long[] buckets;
+
+        Snapshot(long count, long min, long max, double mean, double variance, long[] buckets) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.variance = variance;
+            this.buckets = buckets;
+        }
+
+        public double getStandardDeviation() {
+            return Math.sqrt(variance);
+        }
+
+        /* 기록된 값 중 percentile(0 ~ 100)% 위치의 값, 버킷 안에서 가장 큰 값으로 보고 */
+        public long valueAtPercentile(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) total += bucket;
+
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return Math.min(highestValueAt(i), max);
+            }
+
+            return max;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.thread.share;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 여러 스레드를 동시에 출발시켜 처리량을 재는 벤치마크 공용 도구
+ * 모든 스레드를 먼저 만들어 두고 CountDownLatch 하나로 동시에 출발시켜서, 스레드 생성 / 시작 비용이 측정에 섞이지 않게 함
+ * - run() : 정해진 시간 동안 작업을 쉬지 않고 반복하고, 마감 시간이 지나면 각자 멈춘 뒤 반복 횟수를 그룹별로 합산
+ *   측정 중에는 스레드 로컬 변수에만 세고 끝날 때 LongAdder에 한번만 더하기 때문에 집계 자체가 경합을 만들지 않음
+ * - runToCompletion() : 정해진 양의 작업을 모두 끝낼 때까지 걸린 시간을 측정 (Producer / Consumer처럼 서로를 기다리는 작업용)
+ */
+public final class ThroughputHarness {
+
+    private ThroughputHarness() {
+    }
+
+    /* threads개의 스레드가 같은 작업을 반복했을 때의 초당 연산 수 */
+    public static long opsPerSecond(int threads, int opsPerCall, IntFunction<Runnable> factory, long durationMillis)
+            throws InterruptedException {
+        return run(durationMillis, new Group(threads, opsPerCall, factory))[0] * 1000 / durationMillis;
+    }
+
+    /* 모든 그룹의 스레드를 동시에 출발시켜 durationMillis 동안 실행한 뒤, groups 순서대로 그룹별 총 연산 수를 반환 */
+    public static long[] run(long durationMillis, Group... groups) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder[] totals = new LongAdder[groups.length];
+        List<Thread> threads = new ArrayList<>();
+        long[] deadline = new long[1];
+
+        for (int g = 0; g < groups.length; g++) {
+            Group group = groups[g];
+            LongAdder total = totals[g] = new LongAdder();
+
+            for (int i = 0; i < group.threads(); i++) {
+                int index = i;
+
+                threads.add(new Thread(() -> {
+                    // 작업은 실행할 스레드에서 만들어야 ThreadLocalRandom.current() 같은 스레드별 상태가 올바른 스레드에 묶임
+                    Runnable operation = group.factory().apply(index);
+                    long count = 0;
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    while (System.nanoTime() < deadline[0]) {
+                        operation.run();
+                        count += group.opsPerCall();
+                    }
+
+                    total.add(count);
+                }));
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        // start.countDown()이 happens-before를 만들기 때문에 deadline은 일반 배열이어도 모든 스레드에 보임
+        deadline[0] = System.nanoTime() + durationMillis * 1_000_000;
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] counts = new long[groups.length];
+        for (int g = 0; g < groups.length; g++) {
+            counts[g] = totals[g].sum();
+        }
+
+        return counts;
+    }
+
+    /* 작업마다 스레드 1개씩 동시에 출발시켜 모든 작업이 끝날 때까지 걸린 시간(ns), 인터럽트된 작업은 그 자리에서 끝남 */
+    public static long runToCompletion(List<Task> tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (Task task : tasks) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return System.nanoTime() - startTime;
+    }
+
+    /* runToCompletion()이 스레드 1개에서 끝까지 실행할 작업 */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * 같은 작업을 반복하는 스레드 묶음
+     * @field opsPerCall : 작업 1번 실행을 몇 개의 연산으로 셀지 (예 : 추가 + 삭제 = 2)
+     * @field factory : 스레드 번호를 받아 그 스레드가 반복할 작업을 만듦, 각 스레드에서 출발 전에 한번 호출됨
+     */
+    public record Group(int threads, int opsPerCall, IntFunction<Runnable> factory) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.thread.share;
 
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,42 +8,30 @@ import java.util.Random;
 @Slf4j
 public class TimeAverage {
     public static void main(String[] args) {
-        Metrics metrics = new Metrics();
+        StreamingMetrics metrics = new StreamingMetrics();
+        WindowedMetrics windowedMetrics = new WindowedMetrics(10);
 
-        BusinessLogic business1 = new BusinessLogic(metrics);
-        BusinessLogic business2 = new BusinessLogic(metrics);
-        MetricsPrinter printer = new MetricsPrinter(metrics);
+        BusinessLogic business1 = new BusinessLogic(metrics, windowedMetrics);
+        BusinessLogic business2 = new BusinessLogic(metrics, windowedMetrics);
+        MetricsPrinter printer = new MetricsPrinter(metrics, windowedMetrics);
 
         business1.start();
         business2.start();
         printer.start();
     }
 
-    /* 샘플의 평균값을 가지고 있는 클래스 */
-    @Getter
-    public static class Metrics {
-        private long count = 0; // 지금까지 캡쳐된 샘플의 개수를 추적하는 Count 변수
-        private volatile double average = 0.0; // 모든 샘플의 총합을 개수로 나눈 평균값
-
-        // 새로운 Sample 값을 받아 새로운 평균값을 업데이트 해주는 함수
-        public synchronized void addSample(long sample) {
-            double currentSum = average * count; // 기존 평균값
-            count++;
-            average = (currentSum + sample) / count; // 새로운 평균값
-        }
-    }
-
-    /* 시작 & 종료 시간을 캡쳐해 샘플을 추가하는 클래스 */
+    /* 시작 & 종료 시간을 캡쳐해 샘플(마이크로초)을 추가하는 클래스 */
     @RequiredArgsConstructor
     public static class BusinessLogic extends Thread {
-        private final Metrics metrics;
+        private final StreamingMetrics metrics;
+        private final WindowedMetrics windowedMetrics;
         private Random random = new Random();
 
         @Override
         public void run() {
 
             while (true) {
-                long start = System.currentTimeMillis();
+                long start = System.nanoTime();
 
                 try {
                     Thread.sleep(random.nextInt(10));
@@ -52,30 +39,45 @@ public class TimeAverage {
                     log.error("Thread Interrupted");
                 }
 
-                long end = System.currentTimeMillis();
+                long end = System.nanoTime();
 
-                metrics.addSample(end - start);
+                metrics.record((end - start) / 1_000);
+                windowedMetrics.record((end - start) / 1_000);
             }
         }
     }
 
-    /* BusinessLogic 클래스와 병렬로 실행되며 BusinessLogic의 평균 시간을 캡쳐 후 출력하는 클래스 */
+    /* BusinessLogic 클래스와 병렬로 실행되며 BusinessLogic의 시간 통계를 스냅샷으로 캡쳐 후 출력하는 클래스, 1초마다 최근 구간 / EWMA도 출력 */
     @RequiredArgsConstructor
     public static class MetricsPrinter extends Thread {
-        private final Metrics metrics;
+        private final StreamingMetrics metrics;
+        private final WindowedMetrics windowedMetrics;
 
         @Override
         public void run() {
-            while (true) {
+            for (long round = 1; ; round++) {
                 try {
                     Thread.sleep(100);
                 } catch (InterruptedException e) {
                     log.error("Thread Interrupted");
                 }
 
-                double currentAverage = metrics.getAverage();
+                StreamingMetrics.Snapshot snapshot = metrics.snapshot();
 
-                log.info("현재 Average 값 : {}", currentAverage);
+                log.info("count : {}, average : {}us, stddev : {}us, min : {}us, max : {}us, p50 : {}us, p99 : {}us",
+                        snapshot.getCount(), String.format("%.1f", snapshot.getMean()),
+                        String.format("%.1f", snapshot.getStandardDeviation()), snapshot.getMin(), snapshot.getMax(),
+                        snapshot.valueAtPercentile(50), snapshot.valueAtPercentile(99));
+
+                if (round % 10 == 0) {
+                    WindowedMetrics.Snapshot window = windowedMetrics.snapshot();
+
+                    log.info("최근 {}초 - {}/s, average : {}us, max : {}us / 1분 EWMA - {}/s, average : {}us",
+                            window.getWindowSeconds(), String.format("%.1f", window.getRate()),
+                            String.format("%.1f", window.getMean()), window.getMax(),
+                            String.format("%.1f", window.getRate(WindowedMetrics.Horizon.ONE_MINUTE)),
+                            String.format("%.1f", window.getAverage(WindowedMetrics.Horizon.ONE_MINUTE)));
+                }
             }
         }
     }
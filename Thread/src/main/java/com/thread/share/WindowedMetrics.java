@@ -0,0 +1,218 @@
+package com.thread.share;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 N초 구간과 지수 감쇠 이동 평균(EWMA)을 보여주는 시간 구간 메트릭
+ * 1초마다 버킷 1개를 쓰는 링 버퍼(windowSeconds + 1칸)에 기록하고, 끝난 초의 버킷을 1/5/15분 EWMA에 한번씩 반영함
+ * 기록은 CAS / getAndAdd만 사용하고, EWMA 반영은 AtomicBoolean을 먼저 잡은 스레드 하나만 하고 나머지는 기다리지 않고 지나감
+ * 링 버퍼 칸 수가 고정이라 메트릭 1개의 메모리는 가동 시간과 관계없이 일정함 (초마다 버킷 객체 1개를 교체)
+ * @field buckets : 초 % 링 크기 -> 그 초의 버킷, 칸에 들어있는 버킷의 second가 다르면 지난 초의 값으로 보고 무시
+ * @field foldedSecond : 마지막으로 EWMA에 반영한 초, folding을 잡은 스레드만 씀
+ * @field rates / averages : Horizon 순서의 초당 기록 수 / 평균값 EWMA, 반영할 때마다 새 배열로 교체
+ */
+public class WindowedMetrics {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int windowSeconds;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final AtomicBoolean folding = new AtomicBoolean(false);
+    private volatile long foldedSecond = -1;
+    private volatile double[] rates = new double[Horizon.values().length];
+    private volatile double[] averages = new double[Horizon.values().length];
+    private boolean ratesSeeded = false;
+    private boolean averagesSeeded = false;
+
+    /* EWMA 시간 상수, 초당 반영 비율은 1 - e^(-1 / seconds) */
+    public enum Horizon {
+        ONE_MINUTE(60), FIVE_MINUTES(300), FIFTEEN_MINUTES(900);
+
+        private final double alpha;
+
+        Horizon(int seconds) {
+            this.alpha = 1 - Math.exp(-1.0 / seconds);
+        }
+    }
+
+    public WindowedMetrics(int windowSeconds) {
+        this(windowSeconds, System::nanoTime);
+    }
+
+    WindowedMetrics(int windowSeconds, LongSupplier nanoClock) {
+        if (windowSeconds <= 0) throw new IllegalArgumentException("windowSeconds는 1 이상이어야 함 : " + windowSeconds);
+
+        this.windowSeconds = windowSeconds;
+        this.buckets = new AtomicReferenceArray<>(windowSeconds + 1); // 진행 중인 초 + 끝난 N초
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    /* 현재 초의 버킷에 샘플 기록, 윈도우보다 오래 멈췄다가 들어온 샘플은 버림 */
+    public void record(long value) {
+        long now = currentSecond();
+        if (now - 1 > foldedSecond) fold(now);
+
+        Bucket bucket = bucketForWrite(now);
+        if (bucket != null) bucket.add(value);
+    }
+
+    /* 최근 windowSeconds초(진행 중인 초 제외)의 합계와 EWMA, 버킷 N개와 배열 2개만 읽음 */
+    public Snapshot snapshot() {
+        long now = currentSecond();
+        if (now - 1 > foldedSecond) fold(now);
+
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+
+        for (long second = Math.max(0, now - windowSeconds); second < now; second++) {
+            Bucket bucket = bucketForRead(second);
+            if (bucket == null) continue;
+
+            count += bucket.count;
+            sum += bucket.sum;
+            max = Math.max(max, bucket.max);
+        }
+
+        return new Snapshot(windowSeconds, count, count == 0 ? 0.0 : (double) sum / count, max, rates, averages);
+    }
+
+    /* 반영 안 된 끝난 초들을 EWMA에 순서대로 반영, 이미 다른 스레드가 반영 중이면 그냥 돌아감 */
+    private void fold(long now) {
+        if (!folding.compareAndSet(false, true)) return;
+
+        try {
+            long first = foldedSecond + 1;
+            long last = now - 1;
+            if (first > last) return;
+
+            double[] nextRates = rates.clone();
+            double[] nextAverages = averages.clone();
+
+            // 링 버퍼에서 이미 밀려난 초는 기록이 없던 초와 같으므로 한번에 감쇠
+            long oldestReadable = now - windowSeconds;
+            if (first < oldestReadable) {
+                long skipped = oldestReadable - first;
+                for (Horizon horizon : Horizon.values()) {
+                    nextRates[horizon.ordinal()] *= Math.pow(1 - horizon.alpha, skipped);
+                }
+                ratesSeeded = true;
+                first = oldestReadable;
+            }
+
+            for (long second = first; second <= last; second++) {
+                Bucket bucket = bucketForRead(second);
+                long count = bucket == null ? 0 : bucket.count;
+
+                for (Horizon horizon : Horizon.values()) {
+                    int i = horizon.ordinal();
+                    nextRates[i] = ratesSeeded ? nextRates[i] + horizon.alpha * (count - nextRates[i]) : count;
+
+                    if (count > 0) {
+                        double mean = (double) bucket.sum / count;
+                        nextAverages[i] = averagesSeeded ? nextAverages[i] + horizon.alpha * (mean - nextAverages[i]) : mean;
+                    }
+                }
+
+                ratesSeeded = true;
+                if (count > 0) averagesSeeded = true;
+            }
+
+            rates = nextRates;
+            averages = nextAverages;
+            foldedSecond = last;
+        } finally {
+            folding.set(false);
+        }
+    }
+
+    /* 칸에 지난 초의 버킷이 있으면 새 버킷으로 CAS 교체, 진 스레드는 이긴 스레드의 버킷을 씀 */
+    private Bucket bucketForWrite(long second) {
+        int index = (int) (second % buckets.length());
+
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.second == second) return bucket;
+            if (bucket != null && bucket.second > second) return null;
+
+            Bucket fresh = new Bucket(second);
+            if (buckets.compareAndSet(index, bucket, fresh)) return fresh;
+        }
+    }
+
+    private Bucket bucketForRead(long second) {
+        Bucket bucket = buckets.get((int) (second % buckets.length()));
+        return bucket != null && bucket.second == second ? bucket : null;
+    }
+
+    private long currentSecond() {
+        return (nanoClock.getAsLong() - startNanos) / NANOS_PER_SECOND;
+    }
+
+    /* 1초 동안의 기록 수 / 합계 / 최대값 */
+    private static class Bucket {
+        private static final AtomicLongFieldUpdater<Bucket> COUNT = AtomicLongFieldUpdater.newUpdater(Bucket.class, "count");
+        private static final AtomicLongFieldUpdater<Bucket> SUM = AtomicLongFieldUpdater.newUpdater(Bucket.class, "sum");
+        private static final AtomicLongFieldUpdater<Bucket> MAX = AtomicLongFieldUpdater.newUpdater(Bucket.class, "max");
+
+        private final long second;
+        private volatile long count = 0;
+        private volatile long sum = 0;
+        private volatile long max = 0;
+
+        Bucket(long second) {
+            this.second = second;
+        }
+
+        void add(long value) {
+            COUNT.getAndIncrement(this);
+            SUM.getAndAdd(this, value);
+
+            long current;
+            while (value > (current = max) && !MAX.compareAndSet(this, current, value)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /* snapshot() 시점의 최근 구간 합계와 EWMA */
+    public static class Snapshot {
+        @Getter private final int windowSeconds;
+        @Getter private final long count;
+        @Getter private final double mean;
+        @Getter private final long max;
+        private final double[] rates;
+        private final double[] averages;
+
+        Snapshot(int windowSeconds, long count, double mean, long max, double[] rates, double[] averages) {
+            this.windowSeconds = windowSeconds;
+            this.count = count;
+            this.mean = mean;
+            this.max = max;
+            this.rates = rates;
+            this.averages = averages;
+        }
+
+        /* 구간 동안의 초당 기록 수 */
+        public double getRate() {
+            return (double) count / windowSeconds;
+        }
+
+        /* 초당 기록 수의 EWMA */
+        public double getRate(Horizon horizon) {
+            return rates[horizon.ordinal()];
+        }
+
+        /* 초별 평균값의 EWMA, 기록이 없던 초는 반영하지 않음 */
+        public double getAverage(Horizon horizon) {
+            return averages[horizon.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.thread.throughtput;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 단어를 텍스트 1회 순회로 동시에 세는 Aho-Corasick 오토마톤
+ * 단어들로 Trie를 만들고 Failure Link를 미리 따라가 모든 (상태, 문자) 전이를 채운 DFA로 만들어두기 때문에
+ * 순회 중에는 문자 1개당 배열 조회 1번으로 다음 상태가 정해짐 (단어 수와 무관하게 O(텍스트 길이 + 매치 수))
+ * 결과는 LinearScanCounter와 같은 부분 문자열 개수 (겹치는 매치 포함)
+ * 전이 테이블은 (단어 길이 합 + 1) * (서로 다른 문자 수 + 1)칸이라 한글처럼 문자 종류가 많으면 단어 수가 적어도 커지므로,
+ * MAX_TRANSITIONS칸을 넘는 단어 목록은 테이블을 만들기 전에 IllegalArgumentException으로 거부함
+ * @field charClasses : 문자 -> 전이 테이블의 열 번호, 단어에 없는 문자는 0 (항상 루트 쪽으로 되돌아가는 열)
+ * @field transitions : 상태 * classCount + 열 -> 다음 상태
+ * @field terminal : 상태 -> 그 상태에서 끝나는 단어의 번호, 없으면 -1
+ * @field outputLink : 상태 -> Failure Link를 따라갔을 때 처음 만나는 단어가 끝나는 상태, 없으면 -1
+ * @field depth : 상태 -> 루트에서의 거리 (= 그 상태에서 끝나는 단어의 길이)
+ * @field wordIds : 입력 순서 -> 중복을 제거한 단어 번호, 빈 단어는 -1
+ */
+public class AhoCorasickMatcher {
+    public static final int MAX_TRANSITIONS = 1 << 24; // int 16M칸 = 64MB
+
+    private final int wordCount;
+    private final char[] charClasses;
+    private final int classCount;
+    private final int[] transitions;
+    private final int[] terminal;
+    private final int[] outputLink;
+    private final int[] depth;
+    private final int[] wordIds;
+    private final int maxWordLength;
+
+    public AhoCorasickMatcher(List<String> words) {
+        Map<String, Integer> uniqueWords = new HashMap<>();
+        this.wordIds = new int[words.size()];
+        int totalLength = 0;
+        int maxLength = 0;
+        char maxChar = 0;
+
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+
+            if (word.isEmpty()) {
+                wordIds[i] = -1;
+                continue;
+            }
+
+            Integer id = uniqueWords.get(word);
+            if (id == null) {
+                id = uniqueWords.size();
+                uniqueWords.put(word, id);
+                totalLength += word.length();
+                maxLength = Math.max(maxLength, word.length());
+
+                for (int j = 0; j < word.length(); j++) maxChar = (char) Math.max(maxChar, word.charAt(j));
+            }
+            wordIds[i] = id;
+        }
+
+        this.wordCount = uniqueWords.size();
+        this.maxWordLength = maxLength;
+
+        // 단어에 나오는 문자만 열로 압축 (대부분 ASCII라 전이 테이블이 작아짐)
+        this.charClasses = new char[maxChar + 1];
+        int classes = 1;
+        for (String word : uniqueWords.keySet()) {
+            for (int j = 0; j < word.length(); j++) {
+                char c = word.charAt(j);
+                if (charClasses[c] == 0) charClasses[c] = (char) classes++;
+            }
+        }
+        this.classCount = classes;
+
+        int maxStates = totalLength + 1;
+        if ((long) maxStates * classCount > MAX_TRANSITIONS) {
+            throw new IllegalArgumentException("전이 테이블이 너무 큼 : " + maxStates + " 상태 * " + classCount + " 문자 종류");
+        }
+
+        this.transitions = new int[maxStates * classCount];
+        this.terminal = new int[maxStates];
+        this.outputLink = new int[maxStates];
+        this.depth = new int[maxStates];
+        Arrays.fill(transitions, -1);
+        Arrays.fill(terminal, -1);
+
+        int states = buildTrie(uniqueWords);
+        buildLinks(states);
+    }
+
+    /* 입력한 단어 순서대로 text에서의 등장 횟수 */
+    public long[] count(String text) {
+        long[] counts = new long[wordCount];
+        count(text, 0, text.length(), counts);
+        return toInputOrder(counts);
+    }
+
+    /* [from, to)에서 시작하는 매치를 counts(중복 제거한 단어 번호 기준)에 더함, 검색은 to + 최대 단어 길이 - 1까지 */
+    void count(String text, int from, int to, long[] counts) {
+        int end = (int) Math.min(text.length(), (long) to + maxWordLength - 1);
+        int state = 0;
+
+        for (int i = from; i < end; i++) {
+            char c = text.charAt(i);
+            int column = c < charClasses.length ? charClasses[c] : 0;
+            state = transitions[state * classCount + column];
+
+            int match = terminal[state] >= 0 ? state : outputLink[state];
+            while (match >= 0) {
+                if (i - depth[match] + 1 < to) counts[terminal[match]]++;
+                match = outputLink[match];
+            }
+        }
+    }
+
+    /* 중복 제거한 단어 번호 기준의 결과를 입력 순서로 펼침 */
+    long[] toInputOrder(long[] counts) {
+        long[] result = new long[wordIds.length];
+
+        for (int i = 0; i < wordIds.length; i++) {
+            result[i] = wordIds[i] < 0 ? 0 : counts[wordIds[i]];
+        }
+
+        return result;
+    }
+
+    int getWordCount() {
+        return wordCount;
+    }
+
+    private int buildTrie(Map<String, Integer> uniqueWords) {
+        int states = 1;
+
+        for (Map.Entry<String, Integer> entry : uniqueWords.entrySet()) {
+            String word = entry.getKey();
+            int state = 0;
+
+            for (int j = 0; j < word.length(); j++) {
+                int index = state * classCount + charClasses[word.charAt(j)];
+
+                if (transitions[index] < 0) {
+                    depth[states] = depth[state] + 1;
+                    transitions[index] = states++;
+                }
+                state = transitions[index];
+            }
+
+            terminal[state] = entry.getValue();
+        }
+
+        return states;
+    }
+
+    /* BFS 순서로 Failure Link를 구하면서 비어있는 전이를 Failure 상태의 전이로 채워 DFA로 만듦 */
+    private void buildLinks(int states) {
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputLink[0] = -1;
+
+        for (int column = 0; column < classCount; column++) {
+            int child = transitions[column];
+
+            if (child < 0) {
+                transitions[column] = 0;
+            } else {
+                failure[child] = 0;
+                outputLink[child] = -1;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            for (int column = 0; column < classCount; column++) {
+                int index = state * classCount + column;
+                int child = transitions[index];
+                int fallback = transitions[failure[state] * classCount + column];
+
+                if (child < 0) {
+                    transitions[index] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    outputLink[child] = terminal[fallback] >= 0 ? fallback : outputLink[fallback];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+}
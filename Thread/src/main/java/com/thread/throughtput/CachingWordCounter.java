@@ -0,0 +1,244 @@
+package com.thread.throughtput;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 다른 WordCounter 앞에 두는 크기 제한 결과 캐시 (Decorator)
+ * - Single-Flight : 같은 단어의 캐시 미스가 동시에 발생하면 putIfAbsent()에 성공한 스레드 하나만 계산하고,
+ *   나머지 스레드는 그 Entry의 CompletableFuture 결과를 기다림
+ * - countAll() : 캐시에 있는 단어는 그대로 쓰고, 이 요청이 맡은 미스만 모아서 delegate.countAll()을 1번 호출
+ *   (텍스트를 스캔하는 구현체가 단어 수만큼 순회하지 않도록)
+ * - Eviction : 크기가 maxSize를 넘으면 한 스레드만 전체 Entry를 훑어서 점수가 낮은 Entry를 EVICTION_RATIO만큼 한번에 제거
+ *   (LRU = 마지막 접근 시각, LFU = 접근 횟수), 나머지 스레드는 Eviction을 기다리지 않음
+ * - 통계 : hit / miss / coalesced(다른 스레드의 계산을 기다린 요청) / eviction 횟수를 LongAdder로 경합 없이 집계
+ * @field entries : 단어 -> 계산 중이거나 계산이 끝난 결과
+ * @field evicting : Eviction을 수행 중인 스레드가 있는지 여부
+ */
+public class CachingWordCounter implements WordCounter {
+    private static final double EVICTION_RATIO = 0.1; // 한번의 Eviction에서 제거할 비율
+
+    private final WordCounter delegate;
+    private final int maxSize;
+    private final EvictionPolicy policy;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingWordCounter(WordCounter delegate, int maxSize, EvictionPolicy policy) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize는 1 이상이어야 함 : " + maxSize);
+
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.policy = policy;
+    }
+
+    @Override
+    public long countWord(String word) {
+        Entry entry = entries.get(word);
+
+        if (entry == null) {
+            Entry created = new Entry();
+            entry = entries.putIfAbsent(word, created);
+
+            // putIfAbsent()에 성공한 스레드만 실제로 계산 (Single-Flight)
+            if (entry == null) {
+                misses.increment();
+                return load(word, created);
+            }
+        }
+
+        if (entry.value.isDone()) hits.increment();
+        else coalesced.increment();
+
+        entry.touch(policy);
+        return entry.value.join();
+    }
+
+    /* 미스를 모두 계산한 뒤에만 다른 스레드가 맡은 Entry를 기다리므로, 배치끼리 서로의 단어를 기다리며 멈추는 일은 없음 */
+    @Override
+    public long[] countAll(List<String> words) {
+        Entry[] results = new Entry[words.size()];
+        Map<String, Entry> owned = new LinkedHashMap<>(); // 이 요청이 계산을 맡은 단어 (중복 제거, 입력 순서 유지)
+
+        for (int i = 0; i < results.length; i++) {
+            String word = words.get(i);
+            Entry entry = owned.get(word);
+
+            if (entry == null) {
+                entry = entries.get(word);
+
+                if (entry == null) {
+                    Entry created = new Entry();
+                    entry = entries.putIfAbsent(word, created);
+
+                    if (entry == null) {
+                        misses.increment();
+                        owned.put(word, created);
+                        results[i] = created;
+                        continue;
+                    }
+                }
+
+                if (entry.value.isDone()) hits.increment();
+                else coalesced.increment();
+
+                entry.touch(policy);
+            }
+
+            results[i] = entry;
+        }
+
+        if (!owned.isEmpty()) loadAll(owned);
+
+        long[] counts = new long[results.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = results[i].value.join();
+        }
+
+        return counts;
+    }
+
+    private long load(String word, Entry entry) {
+        long count;
+
+        try {
+            count = delegate.countWord(word);
+        } catch (Throwable e) {
+            // 실패한 결과는 캐시하지 않고, 기다리던 스레드들에게도 같은 예외를 전달
+            // Error(OOM, StackOverflowError)도 잡아야 Future가 미완료로 남아 이후 요청이 영원히 기다리지 않음
+            entries.remove(word, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.value.complete(count);
+        entry.touch(policy);
+
+        if (entries.size() > maxSize) evict();
+
+        return count;
+    }
+
+    /* owned의 단어를 delegate.countAll() 1번으로 계산해서 Entry를 완료, 실패 처리는 load()와 같음 */
+    private void loadAll(Map<String, Entry> owned) {
+        List<String> words = new ArrayList<>(owned.keySet());
+        long[] counts;
+
+        try {
+            counts = delegate.countAll(words);
+        } catch (Throwable e) {
+            for (Map.Entry<String, Entry> failed : owned.entrySet()) {
+                entries.remove(failed.getKey(), failed.getValue());
+                failed.getValue().value.completeExceptionally(e);
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            Entry entry = owned.get(words.get(i));
+            entry.value.complete(counts[i]);
+            entry.touch(policy);
+        }
+
+        if (entries.size() > maxSize) evict();
+    }
+
+    /* 점수가 낮은 Entry부터 (maxSize * (1 - EVICTION_RATIO))개가 남을 때까지 제거, 동시에 한 스레드만 수행 */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) return;
+
+        try {
+            int target = (int) (maxSize * (1 - EVICTION_RATIO));
+            int excess = entries.size() - target;
+            if (excess <= 0) return;
+
+            // 정렬 도중 점수가 바뀌지 않도록 점수를 먼저 복사해둠, 계산 중인 Entry는 제외
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                Entry entry = candidate.getValue();
+                if (entry.value.isDone()) candidates.add(new Candidate(candidate.getKey(), entry, entry.score(policy)));
+            }
+
+            candidates.sort(Comparator.comparingLong(Candidate::score));
+
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Candidate victim = candidates.get(i);
+
+                if (entries.remove(victim.word(), victim.entry())) evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(policy, maxSize, entries.size(), hits.sum(), misses.sum(), coalesced.sum(), evictions.sum());
+    }
+
+    /* 캐시 교체 정책 */
+    public enum EvictionPolicy {
+        LRU, LFU
+    }
+
+    private record Candidate(String word, Entry entry, long score) {
+    }
+
+    /* 캐시 통계 스냅샷 */
+    public record Stats(EvictionPolicy policy, int maxSize, int size, long hits, long misses, long coalesced, long evictions) {
+
+        public double hitRate() {
+            long requests = hits + misses + coalesced;
+            return requests == 0 ? 0.0 : (double) (hits + coalesced) / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "policy=" + policy + "\n"
+                    + "maxSize=" + maxSize + "\n"
+                    + "size=" + size + "\n"
+                    + "hits=" + hits + "\n"
+                    + "misses=" + misses + "\n"
+                    + "coalesced=" + coalesced + "\n"
+                    + "evictions=" + evictions + "\n"
+                    + "hitRate=" + String.format("%.4f", hitRate()) + "\n";
+        }
+    }
+
+    /**
+     * 캐시 Entry
+     * @field value : 계산 결과, 계산 중이면 완료되지 않은 상태
+     * @field lastAccess : LRU용 마지막 접근 시각(ms), 같은 ms 안의 접근은 쓰기를 생략해서 인기 단어의 캐시 라인 경합을 줄임
+     * @field frequency : LFU용 접근 횟수, 인기 단어에 여러 스레드가 몰려도 LongAdder가 셀을 나눠서 경합이 적음
+     */
+    private static class Entry {
+        private final CompletableFuture<Long> value = new CompletableFuture<>();
+        private volatile long lastAccess = System.currentTimeMillis();
+        private final LongAdder frequency = new LongAdder();
+
+        void touch(EvictionPolicy policy) {
+            if (policy == EvictionPolicy.LFU) {
+                frequency.increment();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            if (lastAccess != now) lastAccess = now;
+        }
+
+        long score(EvictionPolicy policy) {
+            return policy == EvictionPolicy.LRU ? lastAccess : frequency.sum();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.thread.throughtput;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 여러 문서(책)를 String으로 읽지 않고 FileChannel.map()으로 매핑해서 UTF-8 바이트 그대로 검색하는 문서 저장소
+ * readAllBytes() + new String()은 파일 크기의 byte[]와 UTF-16 char 배열을 힙에 함께 올리지만,
+ * 매핑된 파일은 OS 페이지 캐시에만 올라가므로 문서 수와 크기가 늘어나도 힙 사용량은 거의 변하지 않음
+ * 단어도 UTF-8로 인코딩해 Boyer-Moore-Horspool로 찾기 때문에 결과는 LinearScanCounter(부분 문자열)와 같음
+ * @field documents : 문서 ID(파일 이름에서 확장자를 뺀 것) -> 매핑된 문서
+ */
+@Slf4j
+public class CorpusRegistry {
+    public static final int MAX_WORD_BYTES = 1024; // 영역 경계에서 겹쳐서 매핑하는 크기, 이보다 긴 단어는 검색하지 않음
+    private static final long REGION_SIZE = Long.getLong("corpus.region.size", 1L << 30); // 매핑 1개가 담당하는 크기 (매핑은 2GB 미만)
+
+    private final Map<String, MappedDocument> documents = new ConcurrentHashMap<>();
+
+    /* directory 바로 아래의 .txt 파일을 모두 등록 */
+    public static CorpusRegistry load(Path directory) throws IOException {
+        CorpusRegistry registry = new CorpusRegistry();
+        List<Path> files;
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".txt"))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            registry.register(fileName.substring(0, fileName.length() - ".txt".length()), file);
+        }
+
+        return registry;
+    }
+
+    public MappedDocument register(String id, Path file) throws IOException {
+        MappedDocument document = new MappedDocument(id, file);
+        documents.put(id, document);
+
+        log.info("문서 등록 : id={}, size={}bytes, regions={}", id, document.size, document.regions.size());
+        return document;
+    }
+
+    /* 등록되지 않은 문서면 null */
+    public MappedDocument get(String id) {
+        return documents.get(id);
+    }
+
+    public Set<String> getDocumentIds() {
+        return documents.keySet();
+    }
+
+    /**
+     * 매핑된 문서 하나, 파일을 REGION_SIZE 단위 영역으로 나눠 매핑하고 각 영역은 다음 영역과 MAX_WORD_BYTES - 1만큼 겹침
+     * 각 영역은 자기 범위에서 "시작하는" 매치만 세기 때문에 경계에 걸친 매치도 한번만 세어짐
+     * 절대 위치 get(int)만 사용하므로 여러 요청 스레드가 같은 버퍼를 동시에 읽어도 안전함
+     * @field regions : 매핑된 영역, i번째 영역은 파일의 i * REGION_SIZE 위치부터 시작
+     */
+    public static class MappedDocument implements WordCounter {
+        private final String id;
+        private final long size;
+        private final List<MappedByteBuffer> regions = new ArrayList<>();
+
+        MappedDocument(String id, Path file) throws IOException {
+            this.id = id;
+
+            // 매핑은 채널을 닫아도 유지됨
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                this.size = channel.size();
+
+                for (long start = 0; start < size; start += REGION_SIZE) {
+                    long length = Math.min(size - start, REGION_SIZE + MAX_WORD_BYTES - 1);
+                    regions.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+                }
+            }
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long countWord(String word) {
+            byte[] pattern = word.getBytes(StandardCharsets.UTF_8);
+
+            if (pattern.length == 0) return 0;
+            if (pattern.length > MAX_WORD_BYTES) {
+                throw new IllegalArgumentException("단어가 너무 김 : " + pattern.length + "bytes (최대 " + MAX_WORD_BYTES + ")");
+            }
+
+            int[] shift = shiftTable(pattern);
+            long count = 0;
+
+            for (MappedByteBuffer region : regions) {
+                int startLimit = (int) Math.min(REGION_SIZE, region.limit()); // 이 영역에서 매치가 시작할 수 있는 끝 (미포함)
+                count += countRegion(region, startLimit, pattern, shift);
+            }
+
+            return count;
+        }
+
+        /* Boyer-Moore-Horspool : 창의 마지막 바이트로 다음 이동 거리를 정하고, 뒤에서부터 비교 */
+        private static long countRegion(MappedByteBuffer region, int startLimit, byte[] pattern, int[] shift) {
+            int last = pattern.length - 1;
+            byte lastByte = pattern[last];
+            int limit = region.limit();
+            long count = 0;
+            int position = 0;
+
+            while (position < startLimit && position + last < limit) {
+                byte tail = region.get(position + last);
+
+                if (tail == lastByte) {
+                    int i = last - 1;
+                    while (i >= 0 && region.get(position + i) == pattern[i]) i--;
+
+                    if (i < 0) count++;
+                }
+
+                // 매치 후에도 같은 이동 거리를 쓰면 겹치는 매치를 건너뛰지 않음 (String.indexOf(word, index + 1)과 같은 결과)
+                position += shift[tail & 0xFF];
+            }
+
+            return count;
+        }
+
+        /* 바이트 값 -> 창의 마지막 바이트가 그 값일 때 이동할 거리 */
+        private static int[] shiftTable(byte[] pattern) {
+            int[] shift = new int[256];
+            int last = pattern.length - 1;
+
+            Arrays.fill(shift, pattern.length);
+            for (int i = 0; i < last; i++) {
+                shift[pattern[i] & 0xFF] = last - i;
+            }
+
+            return shift;
+        }
+    }
+}
@@ -3,58 +3,155 @@ package com.thread.throughtput;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import com.thread.throughtput.CachingWordCounter.EvictionPolicy;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+@Slf4j
 public class HTTPThroughputServer {
     private static final String INPUT_FILE = "throughput/war_and_peace.txt";
-    private static final int NUMBER_OF_THREAD = 2;
+    private static final int NUMBER_OF_THREAD = Integer.getInteger("server.threads", 2);
+    private static final int PORT = 8080;
 
     public static void main(String[] args) throws IOException {
+        String corpusDirectory = System.getProperty("corpus.dir");
+        ExecutorMode executorMode = ExecutorMode.valueOf(System.getProperty("server.executor", "FIXED").toUpperCase());
+
+        // 문서 디렉토리가 지정되면 책 1권을 String으로 읽는 대신 디렉토리의 모든 문서를 매핑해서 /search?doc=&word= 로 서비스
+        if (corpusDirectory != null) {
+            CorpusRegistry registry = CorpusRegistry.load(Paths.get(corpusDirectory));
+            startCorpusServer(registry, PORT, executorMode);
+            log.info("문서 검색 서버 시작 : port={}, documents={}", PORT, registry.getDocumentIds());
+            return;
+        }
+
         Resource bookResource = new ClassPathResource(INPUT_FILE);
         String bookText = new String(Files.readAllBytes(Paths.get(bookResource.getURI())));
+        SearchMode mode = args.length > 0 ? SearchMode.valueOf(args[0].toUpperCase()) : SearchMode.SUBSTRING;
+        int cacheSize = args.length > 1 ? Integer.parseInt(args[1]) : 0; // 0이면 캐시 사용 안함
+        EvictionPolicy policy = args.length > 2 ? EvictionPolicy.valueOf(args[2].toUpperCase()) : EvictionPolicy.LRU;
+
+        long startTime = System.currentTimeMillis();
+        WordCounter wordCounter = mode.createCounter(bookText);
+        log.info("[{}] 검색 인덱스 생성 시간 : {}ms", mode, System.currentTimeMillis() - startTime);
+
+        if (cacheSize > 0) {
+            wordCounter = new CachingWordCounter(wordCounter, cacheSize, policy);
+            log.info("결과 캐시 사용 : maxSize={}, policy={}", cacheSize, policy);
+        }
 
-        startServer(bookText);
+        startServer(wordCounter, PORT, executorMode);
+        log.info("서버 시작 : port={}, executor={}", PORT, executorMode);
     }
 
     /* Create & Start HTTP Server */
-    public static void startServer(String text) throws IOException {
-        HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
-        server.createContext("/search", new WordCountHandler(text));
+    public static HttpServer startServer(WordCounter wordCounter) throws IOException {
+        return startServer(wordCounter, PORT, ExecutorMode.FIXED);
+    }
+
+    /* 요청을 처리할 Executor를 지정해서 서버 시작, 같은 코드로 Executor만 바꿔가며 부하 테스트를 하기 위함 */
+    public static HttpServer startServer(WordCounter wordCounter, int port, ExecutorMode executorMode) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/search", new WordCountHandler(wordCounter));
+        server.createContext("/batch", new BatchCountHandler(wordCounter));
 
-        Executor executor = Executors.newFixedThreadPool(NUMBER_OF_THREAD);
+        if (wordCounter instanceof CachingWordCounter cache) {
+            server.createContext("/stats", new CacheStatsHandler(cache));
+        }
+
+        Executor executor = executorMode.createExecutor(NUMBER_OF_THREAD);
         server.setExecutor(executor);
         server.start();
+
+        return server;
+    }
+
+    /* 매핑된 여러 문서를 /search?doc=xxxx&word=yyyy 로 검색하는 서버 시작 */
+    public static HttpServer startCorpusServer(CorpusRegistry registry, int port, ExecutorMode executorMode) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/search", new CorpusSearchHandler(registry));
+
+        server.setExecutor(executorMode.createExecutor(NUMBER_OF_THREAD));
+        server.start();
+
+        return server;
+    }
+
+    /**
+     * 요청을 처리할 Executor 종류 (-Dserver.executor로 선택, -Dserver.threads로 FIXED/WORK_STEALING의 스레드 수 지정)
+     * FIXED : 고정 크기 플랫폼 스레드 풀, Handler가 블로킹되면 스레드 수만큼만 동시에 처리
+     * CACHED : 필요할 때마다 플랫폼 스레드를 생성하고 유휴 스레드는 재사용
+     * WORK_STEALING : ForkJoinPool 기반, 스레드마다 작업 큐를 두고 놀고 있는 스레드가 다른 큐의 작업을 가져감
+     * VIRTUAL : 요청마다 가상 스레드 생성, 블로킹 I/O 중에는 캐리어 스레드를 반납하므로 동시 처리 수가 스레드 수에 묶이지 않음
+     */
+    public enum ExecutorMode {
+        FIXED, CACHED, WORK_STEALING, VIRTUAL;
+
+        public ExecutorService createExecutor(int threads) {
+            return switch (this) {
+                case FIXED -> Executors.newFixedThreadPool(threads);
+                case CACHED -> Executors.newCachedThreadPool();
+                case WORK_STEALING -> Executors.newWorkStealingPool(threads);
+                case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            };
+        }
+    }
+
+    /**
+     * 단어를 세는 방식
+     * LINEAR : 요청마다 책 전체를 indexOf()로 스캔 (부분 문자열)
+     * PARALLEL : LINEAR와 같은 스캔을 겹치는 구간으로 나눠 ForkJoinPool에서 병렬 실행 (부분 문자열, 큰 텍스트용)
+     * SUBSTRING : 시작 시 Suffix Array 생성, 요청마다 이진 탐색 (부분 문자열, LINEAR와 같은 결과)
+     * WORD : 시작 시 단어 -> 등장 횟수 인덱스 생성, 요청마다 HashMap 조회 (단어 단위)
+     */
+    public enum SearchMode {
+        LINEAR, PARALLEL, SUBSTRING, WORD;
+
+        public WordCounter createCounter(String text) {
+            return switch (this) {
+                case LINEAR -> new LinearScanCounter(text);
+                case PARALLEL -> new ParallelSegmentCounter(text);
+                case SUBSTRING -> new SuffixArrayCounter(text);
+                case WORD -> new TokenIndexCounter(text);
+            };
+        }
     }
 
     /* HTTP Request Handler */
     @AllArgsConstructor
     private static class WordCountHandler implements HttpHandler {
-        private String text;
+        private WordCounter wordCounter;
 
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             String query = exchange.getRequestURI().getQuery(); // word=xxxx
-            String[] keyValue = query.split("="); // word / xxxx
-            String action = keyValue[0]; // word
-            String word = keyValue[1]; // xxxx
+            String[] keyValue = query == null ? new String[0] : query.split("=", 2); // word / xxxx
 
-            // Request Param의 Key가 word가 아니면 400 Error
-            if (!action.equals("word")) {
-                exchange.sendResponseHeaders(400, 0);
+            // Request Param의 Key가 word가 아니거나 값이 비어있으면 400 Error
+            if (keyValue.length != 2 || !keyValue[0].equals("word") || keyValue[1].isEmpty()) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
                 return;
             }
 
-            long count = countWord(word);
+            String word = keyValue[1]; // xxxx
+            long count = wordCounter.countWord(word);
 
             // Response를 주고 OutputStream을 닫아줌
             byte[] response = Long.toString(count).getBytes();
@@ -63,24 +160,138 @@ public class HTTPThroughputServer {
             outputStream.write(response);
             outputStream.close();
         }
+    }
 
-        /* 책에서 나오는 단어의 개수를 세는 함수 */
-        private long countWord(String word) {
-            long count = 0;
-            int index = 0;
+    /**
+     * 여러 단어를 한번에 세는 Handler
+     * GET /batch?words=a,b,c 또는 POST /batch (본문에 한 줄에 단어 1개, 쉼표가 들어간 단어용)
+     * 응답은 요청한 단어 순서대로 개수만 쉼표로 이어붙인 한 줄 (예 : 12,0,345)
+     * 단어 수가 MAX_BATCH_WORDS를 넘거나 비어있으면 400 Error,
+     * 단어 길이 합 * 서로 다른 문자 수가 AhoCorasickMatcher.MAX_TRANSITIONS를 넘어도 400 Error
+     */
+    @AllArgsConstructor
+    private static class BatchCountHandler implements HttpHandler {
+        private static final int MAX_BATCH_WORDS = 256; // 응답 / 결과 배열 크기 제한, 전이 테이블 크기는 AhoCorasickMatcher.MAX_TRANSITIONS로 따로 제한
+        private static final int MAX_BODY_BYTES = 64 * 1024;
 
-            while (index >= 0) {
-                index = text.indexOf(word, index);
+        private WordCounter wordCounter;
 
-                // index가 양수면 단어를 찾은 것임
-                if (index >= 0) {
-                    count++;
-                    index++;
-                }
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            List<String> words = readWords(exchange);
+
+            if (words == null || words.isEmpty() || words.size() > MAX_BATCH_WORDS) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
             }
 
-            // index가 음수면 더이상 찾을 단어가 없으니 count를 반환하면서 return
-            return count;
+            long[] counts;
+            try {
+                counts = wordCounter.countAll(words);
+            } catch (IllegalArgumentException e) {
+                // 전이 테이블이 MAX_TRANSITIONS를 넘는 단어 목록
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+
+            StringBuilder builder = new StringBuilder(counts.length * 4);
+            for (int i = 0; i < counts.length; i++) {
+                if (i > 0) builder.append(',');
+                builder.append(counts[i]);
+            }
+
+            byte[] response = builder.toString().getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            OutputStream outputStream = exchange.getResponseBody();
+            outputStream.write(response);
+            outputStream.close();
+        }
+
+        /* 요청에서 단어 목록을 읽음, 형식이 잘못됐으면 null */
+        private static List<String> readWords(HttpExchange exchange) throws IOException {
+            if (exchange.getRequestMethod().equals("POST")) {
+                byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+                if (body.length > MAX_BODY_BYTES) return null;
+
+                return new String(body, StandardCharsets.UTF_8).lines().filter(line -> !line.isEmpty()).toList();
+            }
+
+            String query = exchange.getRequestURI().getQuery(); // words=a,b,c
+            if (query == null || !query.startsWith("words=")) return null;
+
+            return Arrays.stream(query.substring("words=".length()).split(",")).filter(word -> !word.isEmpty()).toList();
+        }
+    }
+
+    /* 문서 검색 Handler, doc이나 word가 없으면 400, 등록되지 않은 문서면 404 */
+    @AllArgsConstructor
+    private static class CorpusSearchHandler implements HttpHandler {
+        private CorpusRegistry registry;
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+            String doc = params.get("doc");
+            String word = params.get("word");
+
+            if (doc == null || doc.isEmpty() || word == null || word.isEmpty() || word.length() > CorpusRegistry.MAX_WORD_BYTES) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+
+            CorpusRegistry.MappedDocument document = registry.get(doc);
+            if (document == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+
+            long count;
+            try {
+                count = document.countWord(word);
+            } catch (IllegalArgumentException e) {
+                // UTF-8로 인코딩하면 MAX_WORD_BYTES를 넘는 단어
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+
+            byte[] response = Long.toString(count).getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            OutputStream outputStream = exchange.getResponseBody();
+            outputStream.write(response);
+            outputStream.close();
+        }
+
+        /* key1=value1&key2=value2 -> Map, getQuery()는 이미 디코딩된 값이므로 그대로 사용 */
+        private static Map<String, String> parseQuery(String query) {
+            Map<String, String> params = new HashMap<>();
+            if (query == null) return params;
+
+            for (String pair : query.split("&")) {
+                String[] keyValue = pair.split("=", 2);
+                if (keyValue.length == 2) params.put(keyValue[0], keyValue[1]);
+            }
+
+            return params;
+        }
+    }
+
+    /* 캐시 통계 Handler, hit/miss/coalesced/eviction 횟수를 key=value 형태로 응답 */
+    @AllArgsConstructor
+    private static class CacheStatsHandler implements HttpHandler {
+        private CachingWordCounter cache;
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            byte[] response = cache.getStats().toString().getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            OutputStream outputStream = exchange.getResponseBody();
+            outputStream.write(response);
+            outputStream.close();
         }
     }
 }
@@ -0,0 +1,85 @@
+package com.thread.throughtput;
+
+/**
+ * HdrHistogram 방식의 Log-Linear 지연시간 히스토그램
+ * 값을 2의 거듭제곱 구간(Octave)으로 나누고, 각 구간을 다시 SUB_BUCKET_COUNT개로 균등 분할해서
+ * 값의 크기와 상관없이 상대 오차 1 / SUB_BUCKET_COUNT (약 0.8%) 이내로 백분위를 계산함
+ * 배열 크기가 고정이라 기록 시 할당이 없고, 스레드마다 하나씩 가지고 기록한 뒤 add()로 합치는 용도 (Thread-Safe 하지 않음)
+ * @field counts : 버킷별 기록 횟수
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT * 2;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalValue = 0;
+    private long maxValue = 0;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+
+        counts[indexOf(value)]++;
+        totalCount++;
+        totalValue += value;
+        if (value > maxValue) maxValue = value;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /* 기록된 값 중 percentile(0 ~ 100)% 위치의 값, 버킷 안에서 가장 큰 값으로 보고 */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueAt(i), maxValue);
+        }
+
+        return maxValue;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalValue / totalCount;
+    }
+
+    /* 2 * SUB_BUCKET_COUNT 미만은 값 그대로, 그 이상은 (Octave, 상위 SUB_BUCKET_BITS + 1 비트)로 버킷 결정 */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> bucket); // SUB_BUCKET_COUNT ~ 2 * SUB_BUCKET_COUNT - 1
+
+        return bucket * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) return index;
+
+        int bucket = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.thread.throughtput;
+
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/* 요청마다 책 전체를 String.indexOf()로 훑는 기존 방식, 요청 1건의 비용이 O(책 크기) */
+@AllArgsConstructor
+public class LinearScanCounter implements WordCounter {
+    private final String text;
+
+    /* 책에서 나오는 단어의 개수를 세는 함수 */
+    @Override
+    public long countWord(String word) {
+        if (word.isEmpty()) return 0; // indexOf("", index)는 index가 책 길이를 넘어도 책 길이를 반환하므로 끝나지 않음
+
+        long count = 0;
+        int index = 0;
+
+        while (index >= 0) {
+            index = text.indexOf(word, index);
+
+            // index가 양수면 단어를 찾은 것임
+            if (index >= 0) {
+                count++;
+                index++;
+            }
+        }
+
+        // index가 음수면 더이상 찾을 단어가 없으니 count를 반환하면서 return
+        return count;
+    }
+
+    /* 단어 수만큼 책을 스캔하는 대신 Aho-Corasick으로 책을 한번만 순회 */
+    @Override
+    public long[] countAll(List<String> words) {
+        return new AhoCorasickMatcher(words).count(text);
+    }
+}
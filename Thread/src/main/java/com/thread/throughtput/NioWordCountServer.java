@@ -0,0 +1,472 @@
+package com.thread.throughtput;
+
+import com.thread.throughtput.HTTPThroughputServer.SearchMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * com.sun.net.httpserver 대신 NIO Selector + SocketChannel 위에 직접 구현한 /search?word= 서버
+ * - 이벤트 루프(스레드) 수만큼 Selector를 두고, 첫번째 루프가 Accept한 연결을 라운드 로빈으로 나눠줌
+ * - 연결마다 루프의 풀에서 Direct ByteBuffer(입력/출력)를 빌려 쓰고, 연결이 끊기면 반납함 (연결 단위 할당)
+ * - 요청 라인을 바이트 단위로 바로 파싱하고, 응답 헤더는 미리 인코딩한 바이트에 숫자만 써넣기 때문에
+ *   요청 1건의 할당은 검색어 String 1개뿐임
+ * - HTTP/1.1 Keep-Alive와 Pipelining 지원 : 한번 읽은 버퍼에 완성된 요청이 여러개면 모두 처리한 뒤 응답을 한번에 씀
+ * - 요청 처리 중 RuntimeException이 나면 그 연결에만 500을 보내고 닫음, 같은 루프의 다른 연결과 루프 자체는 계속 동작함
+ * WordCounter는 이벤트 루프 스레드에서 바로 호출되므로 SUBSTRING / WORD 처럼 µs 단위로 끝나는 방식과 함께 쓰는 용도
+ *
+ * 실행 인자 : [SearchMode] [port], 이벤트 루프 수는 -Dnio.loops (기본 CPU 코어 수)
+ */
+@Slf4j
+public class NioWordCountServer {
+    private static final String INPUT_FILE = "throughput/war_and_peace.txt";
+    private static final int DEFAULT_PORT = 8081;
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_RESPONSE_SIZE = 128; // 응답 1건의 최대 크기, 출력 버퍼에 이만큼 여유가 없으면 Flush 후 이어서 처리
+    private static final int MAX_WORD_BYTES = 1024;
+
+    private static final byte[] OK_PREFIX = ascii("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: ");
+    private static final byte[] HEADER_END = ascii("\r\n\r\n");
+    private static final byte[] BAD_REQUEST = ascii("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n\r\n");
+    private static final byte[] NOT_FOUND = ascii("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n");
+    private static final byte[] INTERNAL_ERROR = ascii("HTTP/1.1 500 Internal Server Error\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+    private static final byte[] TOO_LARGE = ascii("HTTP/1.1 431 Request Header Fields Too Large\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+    private static final byte[] GET_SEARCH = ascii("GET /search?");
+    private static final byte[] WORD_KEY = ascii("word=");
+    private static final byte[] HTTP_1_0 = ascii(" HTTP/1.0");
+    private static final byte[] CONNECTION_CLOSE = ascii("connection: close");
+
+    private final WordCounter wordCounter;
+    private final EventLoop[] loops;
+    private ServerSocketChannel serverChannel;
+
+    public NioWordCountServer(WordCounter wordCounter, int numberOfLoops) throws IOException {
+        this.wordCounter = wordCounter;
+        this.loops = new EventLoop[numberOfLoops];
+
+        for (int i = 0; i < numberOfLoops; i++) {
+            loops[i] = new EventLoop(i);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String bookText = new String(Files.readAllBytes(Paths.get(new ClassPathResource(INPUT_FILE).getURI())));
+        SearchMode mode = args.length > 0 ? SearchMode.valueOf(args[0].toUpperCase()) : SearchMode.SUBSTRING;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        int numberOfLoops = Integer.getInteger("nio.loops", Runtime.getRuntime().availableProcessors());
+
+        NioWordCountServer server = new NioWordCountServer(mode.createCounter(bookText), numberOfLoops);
+        int boundPort = server.start(port);
+
+        log.info("NIO 서버 시작 : port={}, mode={}, loops={}", boundPort, mode, numberOfLoops);
+    }
+
+    /* port에 바인딩하고 이벤트 루프 스레드들을 시작, 실제 바인딩된 포트를 반환 (0이면 임의 포트) */
+    public int start(int port) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+
+        for (EventLoop loop : loops) {
+            Thread thread = new Thread(loop, "nio-loop-" + loop.id);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    public void stop() throws IOException {
+        for (EventLoop loop : loops) {
+            loop.running = false;
+            loop.selector.wakeup();
+        }
+
+        serverChannel.close();
+    }
+
+    /**
+     * 연결 하나의 상태
+     * @field in : 아직 처리하지 않은 요청 바이트 (쓰기 모드)
+     * @field out : 아직 전송하지 않은 응답 바이트 (쓰기 모드)
+     * @field closeAfterWrite : 응답을 모두 보낸 뒤 연결을 닫아야 하는지 (Connection: close, HTTP/1.0, 잘못된 요청)
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer in;
+        private final ByteBuffer out;
+        private boolean closeAfterWrite = false;
+
+        Connection(SocketChannel channel, ByteBuffer in, ByteBuffer out) {
+            this.channel = channel;
+            this.in = in;
+            this.out = out;
+        }
+    }
+
+    /**
+     * Selector 하나를 담당하는 이벤트 루프
+     * @field pending : 다른 루프에서 Accept되어 이 루프에 등록되길 기다리는 채널
+     * @field bufferPool : 이 루프 전용 Direct ByteBuffer 풀, 루프 스레드만 접근하므로 동기화 불필요
+     * @field wordBytes : 검색어의 퍼센트 디코딩 결과를 담는 재사용 버퍼
+     */
+    private class EventLoop implements Runnable {
+        private final int id;
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<ByteBuffer> bufferPool = new ArrayDeque<>();
+        private final byte[] wordBytes = new byte[MAX_WORD_BYTES];
+        private volatile boolean running = true;
+        private int nextLoop = 0;
+
+        EventLoop(int id) throws IOException {
+            this.id = id;
+            this.selector = Selector.open();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    registerPending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+
+                        if (!key.isValid()) continue;
+
+                        // 한 연결에서 난 예외가 루프 밖으로 나가면 이 루프의 모든 연결이 멈추므로 그 연결만 닫음
+                        try {
+                            if (key.isAcceptable()) accept();
+                            else if (key.isReadable()) read(key);
+                            else if (key.isWritable()) write(key);
+                        } catch (RuntimeException e) {
+                            log.error("[loop-{}] 연결 처리 오류, 연결을 닫음 : {}", id, e.toString());
+                            if (key.attachment() instanceof Connection) close(key);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.error("[loop-{}] 이벤트 루프 오류 : {}", id, e.getMessage());
+                }
+            }
+
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("[loop-{}] Selector 종료 실패 : {}", id, e.getMessage());
+            }
+        }
+
+        /* Accept한 채널을 라운드 로빈으로 각 루프에 넘김 */
+        private void accept() throws IOException {
+            SocketChannel channel;
+
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                EventLoop target = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+
+                target.pending.add(channel);
+                target.selector.wakeup(); // 자기 자신이어도 다음 select()가 바로 반환되어 등록됨
+            }
+        }
+
+        private void registerPending() throws IOException {
+            SocketChannel channel;
+
+            while ((channel = pending.poll()) != null) {
+                Connection connection = new Connection(channel, borrowBuffer(), borrowBuffer());
+                channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        }
+
+        private void read(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+
+            try {
+                int read = connection.channel.read(connection.in);
+
+                if (read < 0) {
+                    close(key);
+                    return;
+                }
+
+                process(key, connection);
+            } catch (IOException e) {
+                close(key);
+            }
+        }
+
+        private void write(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+
+            try {
+                // 출력 버퍼가 비면 출력 공간이 없어서 멈춰있던 파이프라인 요청을 이어서 처리
+                if (flush(key, connection) && connection.in.position() > 0) {
+                    process(key, connection);
+                }
+            } catch (IOException e) {
+                close(key);
+            }
+        }
+
+        /* 입력 버퍼에 쌓인 완성된 요청을 순서대로 처리해 출력 버퍼에 응답을 쌓고, 마지막에 한번에 전송 */
+        private void process(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer in = connection.in;
+            ByteBuffer out = connection.out;
+            boolean outputFull;
+
+            do {
+                outputFull = false;
+                in.flip();
+
+                while (!connection.closeAfterWrite) {
+                    int headerEnd = indexOf(in, in.position(), in.limit(), HEADER_END);
+                    if (headerEnd < 0) break;
+
+                    if (out.remaining() < MAX_RESPONSE_SIZE) {
+                        outputFull = true;
+                        break;
+                    }
+
+                    int requestEnd = headerEnd + HEADER_END.length;
+                    handleRequest(connection, in.position(), requestEnd);
+                    in.position(requestEnd);
+                }
+
+                in.compact();
+
+                // 버퍼가 가득 찼는데도 헤더가 끝나지 않았으면 처리할 수 없는 요청
+                if (!outputFull && !in.hasRemaining() && !connection.closeAfterWrite) {
+                    out.put(TOO_LARGE);
+                    connection.closeAfterWrite = true;
+                }
+
+                // 출력 공간이 없어서 멈췄고 Flush가 끝까지 됐으면 남은 파이프라인 요청을 이어서 처리
+            } while (flush(key, connection) && outputFull);
+        }
+
+        /* 출력 버퍼 전송, 모두 보냈으면 true, 남았으면 OP_WRITE를 등록하고 false */
+        private boolean flush(SelectionKey key, Connection connection) throws IOException {
+            ByteBuffer out = connection.out;
+            if (out.position() == 0) return true;
+
+            out.flip();
+            connection.channel.write(out);
+
+            if (out.hasRemaining()) {
+                out.compact();
+                key.interestOps(SelectionKey.OP_WRITE);
+                return false;
+            }
+
+            out.clear();
+
+            if (connection.closeAfterWrite) {
+                close(key);
+                return false;
+            }
+
+            key.interestOps(SelectionKey.OP_READ);
+            return true;
+        }
+
+        /* in의 [start, end) 범위의 요청 하나를 처리, 실패하면 이 요청의 응답을 500으로 바꾸고 응답을 보낸 뒤 연결을 닫음 */
+        private void handleRequest(Connection connection, int start, int end) {
+            ByteBuffer out = connection.out;
+            int responseStart = out.position();
+
+            try {
+                respond(connection, start, end);
+            } catch (RuntimeException e) {
+                log.error("[loop-{}] 요청 처리 실패 : {}", id, e.toString());
+                out.position(responseStart); // 쓰다 만 응답은 버림
+                out.put(INTERNAL_ERROR);
+                connection.closeAfterWrite = true;
+            }
+        }
+
+        /* in의 [start, end) 범위의 요청 하나를 파싱해서 out에 응답을 기록 */
+        private void respond(Connection connection, int start, int end) {
+            ByteBuffer in = connection.in;
+            ByteBuffer out = connection.out;
+            int lineEnd = indexOf(in, start, end, HEADER_END, 2); // 요청 라인의 끝 (\r\n)
+
+            if (containsIgnoreCase(in, lineEnd, end, CONNECTION_CLOSE) || indexOf(in, start, lineEnd, HTTP_1_0) >= 0) {
+                connection.closeAfterWrite = true;
+            }
+
+            if (!startsWith(in, start, GET_SEARCH)) {
+                out.put(NOT_FOUND);
+                return;
+            }
+
+            int wordLength = decodeWord(in, start + GET_SEARCH.length, lineEnd);
+            if (wordLength <= 0) {
+                out.put(BAD_REQUEST);
+                return;
+            }
+
+            long count = wordCounter.countWord(new String(wordBytes, 0, wordLength, StandardCharsets.UTF_8));
+
+            out.put(OK_PREFIX);
+            putLong(out, stringSize(count));
+            out.put(HEADER_END);
+            putLong(out, count);
+        }
+
+        /**
+         * 쿼리 스트링에서 word= 값을 찾아 퍼센트 디코딩 후 wordBytes에 기록, 길이를 반환 (없거나 너무 길거나 %XX가 잘못됐으면 -1)
+         * HttpServer의 /search(URI.getQuery())와 같게 '+'는 공백으로 바꾸지 않고 그대로 둠
+         */
+        private int decodeWord(ByteBuffer in, int queryStart, int lineEnd) {
+            int position = queryStart;
+
+            while (position < lineEnd && in.get(position) != ' ') {
+                boolean isWord = startsWith(in, position, WORD_KEY);
+                if (isWord) position += WORD_KEY.length;
+
+                int length = 0;
+                while (position < lineEnd) {
+                    byte b = in.get(position);
+                    if (b == '&' || b == ' ') break;
+
+                    if (isWord) {
+                        if (length == MAX_WORD_BYTES) return -1;
+
+                        if (b == '%') {
+                            int high = position + 1 < lineEnd ? Character.digit(in.get(position + 1), 16) : -1;
+                            int low = position + 2 < lineEnd ? Character.digit(in.get(position + 2), 16) : -1;
+                            if (high < 0 || low < 0) return -1;
+
+                            b = (byte) (high << 4 | low);
+                            position += 2;
+                        }
+                        wordBytes[length++] = b;
+                    }
+                    position++;
+                }
+
+                if (isWord) return length;
+                if (position < lineEnd && in.get(position) == '&') position++;
+            }
+
+            return -1;
+        }
+
+        private ByteBuffer borrowBuffer() {
+            ByteBuffer buffer = bufferPool.poll();
+            return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        /* 이미 닫은 연결이면 무시 (버퍼를 풀에 두번 반납하면 두 연결이 같은 버퍼를 쓰게 됨) */
+        private void close(SelectionKey key) {
+            if (!key.isValid()) return;
+
+            Connection connection = (Connection) key.attachment();
+            key.cancel();
+
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                log.debug("[loop-{}] 연결 종료 실패 : {}", id, e.getMessage());
+            }
+
+            connection.in.clear();
+            connection.out.clear();
+            bufferPool.push(connection.in);
+            bufferPool.push(connection.out);
+        }
+    }
+
+    /* ========== Utils ========== */
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte[] pattern) {
+        return indexOf(buffer, from, to, pattern, pattern.length);
+    }
+
+    /* buffer의 [from, to) 범위에서 pattern의 앞 length 바이트가 처음 나오는 위치, 없으면 -1 */
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte[] pattern, int length) {
+        outer:
+        for (int i = from; i <= to - length; i++) {
+            for (int j = 0; j < length; j++) {
+                if (buffer.get(i + j) != pattern[j]) continue outer;
+            }
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int position, byte[] prefix) {
+        if (position + prefix.length > buffer.limit()) return false;
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(position + i) != prefix[i]) return false;
+        }
+
+        return true;
+    }
+
+    /* pattern은 소문자로 주어지고, buffer의 ASCII 대문자는 소문자로 바꿔서 비교 */
+    private static boolean containsIgnoreCase(ByteBuffer buffer, int from, int to, byte[] pattern) {
+        outer:
+        for (int i = from; i <= to - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                byte b = buffer.get(i + j);
+                if (b >= 'A' && b <= 'Z') b += 'a' - 'A';
+                if (b != pattern[j]) continue outer;
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /* String 변환 없이 음이 아닌 정수를 ASCII 숫자로 기록 */
+    private static void putLong(ByteBuffer out, long value) {
+        int digits = stringSize(value);
+        int position = out.position();
+
+        for (int i = digits - 1; i >= 0; i--) {
+            out.put(position + i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+
+        out.position(position + digits);
+    }
+
+    private static int stringSize(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
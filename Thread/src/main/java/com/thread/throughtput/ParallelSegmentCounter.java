@@ -0,0 +1,170 @@
+package com.thread.throughtput;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * LinearScanCounter와 같은 부분 문자열 검색을 텍스트 구간(Segment)별로 나눠 ForkJoinPool에서 병렬로 세는 방식
+ * 각 구간은 [from, to)에서 "시작하는" 매치만 세고, 검색 범위는 to + (단어 길이 - 1)까지 겹치게 잡기 때문에
+ * 경계에 걸친 매치도 정확히 한 구간에서 한번만 세어짐
+ * 인덱스를 미리 만들 수 없을 만큼 큰 텍스트에서 요청 1건의 지연 시간을 코어 수에 비례해 줄이기 위한 용도
+ * @field POOL : 모든 요청이 공유하는 ForkJoinPool, 동시 요청이 많아도 검색 스레드는 코어 수를 넘지 않음
+ * @field DEFAULT_THRESHOLD : 더이상 분할하지 않을 구간의 최대 길이(문자 수), 이보다 짧은 텍스트는 호출 스레드에서 순차로 셈
+ *                            (search.segment.threshold 시스템 프로퍼티로 조정)
+ */
+@Slf4j
+public class ParallelSegmentCounter implements WordCounter {
+    public static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_THRESHOLD = Integer.getInteger("search.segment.threshold", 1 << 20);
+    private static final String INPUT_FILE = "throughput/war_and_peace.txt";
+
+    private final String text;
+    private final int threshold;
+
+    public ParallelSegmentCounter(String text) {
+        this(text, DEFAULT_THRESHOLD);
+    }
+
+    public ParallelSegmentCounter(String text, int threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException("threshold는 1 이상이어야 함 : " + threshold);
+
+        this.text = text;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public long countWord(String word) {
+        if (word.isEmpty()) return 0;
+
+        if (text.length() <= threshold) return countSegment(text, word, 0, text.length());
+
+        return POOL.invoke(new SegmentTask(text, word, 0, text.length(), threshold));
+    }
+
+    /* 구간마다 Aho-Corasick으로 모든 단어를 한번에 세고 구간별 결과를 합산 */
+    @Override
+    public long[] countAll(List<String> words) {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(words);
+
+        if (text.length() <= threshold) return matcher.count(text);
+
+        return matcher.toInputOrder(POOL.invoke(new BatchSegmentTask(text, matcher, 0, text.length(), threshold)));
+    }
+
+    /* [from, to)에서 시작하는 word의 개수, 매치가 to를 넘어가도 되도록 검색 끝은 to + 단어 길이 - 1 */
+    static long countSegment(String text, String word, int from, int to) {
+        int end = (int) Math.min(text.length(), (long) to + word.length() - 1);
+        long count = 0;
+        int index = from;
+
+        while ((index = text.indexOf(word, index, end)) >= 0) {
+            count++;
+            index++;
+        }
+
+        return count;
+    }
+
+    /* 책을 여러번 이어붙인 큰 텍스트에서 순차 / 병렬 검색 시간 비교 */
+    public static void main(String[] args) throws IOException {
+        String bookText = new String(Files.readAllBytes(Paths.get(new ClassPathResource(INPUT_FILE).getURI())));
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        String word = args.length > 1 ? args[1] : "Natasha";
+
+        String corpus = bookText.repeat(copies);
+        WordCounter sequential = new LinearScanCounter(corpus);
+        WordCounter parallel = new ParallelSegmentCounter(corpus);
+
+        log.info("텍스트 길이 : {}자, 병렬도 : {}", corpus.length(), POOL.getParallelism());
+
+        for (int round = 0; round < 10; round++) {
+            long sequentialStart = System.nanoTime();
+            long sequentialCount = sequential.countWord(word);
+            long sequentialTime = System.nanoTime() - sequentialStart;
+
+            long parallelStart = System.nanoTime();
+            long parallelCount = parallel.countWord(word);
+            long parallelTime = System.nanoTime() - parallelStart;
+
+            if (sequentialCount != parallelCount) {
+                throw new IllegalStateException("결과 불일치 : " + sequentialCount + " != " + parallelCount);
+            }
+
+            log.info("[{}] {}회, 순차 : {}ms, 병렬 : {}ms", word, parallelCount,
+                    sequentialTime / 1_000_000, parallelTime / 1_000_000);
+        }
+    }
+
+    /* 구간을 threshold 이하가 될 때까지 반으로 나누어 각 구간의 개수를 합산 */
+    private static class SegmentTask extends RecursiveTask<Long> {
+        private final String text;
+        private final String word;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        SegmentTask(String text, String word, int from, int to, int threshold) {
+            this.text = text;
+            this.word = word;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) return countSegment(text, word, from, to);
+
+            int middle = from + (to - from) / 2;
+            SegmentTask left = new SegmentTask(text, word, from, middle, threshold);
+            SegmentTask right = new SegmentTask(text, word, middle, to, threshold);
+
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+
+    /* SegmentTask와 같은 분할, 구간마다 단어별 개수 배열을 만들어 합침 */
+    private static class BatchSegmentTask extends RecursiveTask<long[]> {
+        private final String text;
+        private final AhoCorasickMatcher matcher;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BatchSegmentTask(String text, AhoCorasickMatcher matcher, int from, int to, int threshold) {
+            this.text = text;
+            this.matcher = matcher;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= threshold) {
+                long[] counts = new long[matcher.getWordCount()];
+                matcher.count(text, from, to, counts);
+                return counts;
+            }
+
+            int middle = from + (to - from) / 2;
+            BatchSegmentTask left = new BatchSegmentTask(text, matcher, from, middle, threshold);
+            BatchSegmentTask right = new BatchSegmentTask(text, matcher, middle, to, threshold);
+
+            left.fork();
+            long[] counts = right.compute();
+            long[] leftCounts = left.join();
+
+            for (int i = 0; i < counts.length; i++) counts[i] += leftCounts[i];
+            return counts;
+        }
+    }
+}
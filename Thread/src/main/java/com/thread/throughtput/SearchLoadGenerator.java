@@ -0,0 +1,233 @@
+package com.thread.throughtput;
+
+import com.sun.net.httpserver.HttpServer;
+import com.thread.throughtput.HTTPThroughputServer.ExecutorMode;
+import com.thread.throughtput.HTTPThroughputServer.SearchMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * /search 엔드포인트용 Closed-Loop 부하 생성기
+ * 서버를 같은 프로세스의 Loopback 임의 포트로 띄운 뒤, concurrency개의 가상 스레드가 각자
+ * [요청 전송 -> 응답 대기 -> 지연시간 기록]을 반복하며, 워밍업 구간의 결과는 버리고 측정 구간의 처리량과 백분위 지연시간을 출력함
+ * Executor 모드별로 서버를 새로 띄워 같은 조건에서 비교함
+ *
+ * 시스템 프로퍼티
+ * load.executors : 비교할 ExecutorMode 목록 (기본 FIXED,CACHED,WORK_STEALING,VIRTUAL)
+ * load.search : 서버의 SearchMode (기본 LINEAR)
+ * load.concurrency : 동시 요청 수 (기본 64)
+ * load.warmup / load.duration : 워밍업 / 측정 시간(초) (기본 5 / 15)
+ * load.distribution : 단어 선택 분포, UNIFORM 또는 ZIPF (기본 ZIPF)
+ * load.zipf.exponent : Zipf 분포의 지수 (기본 1.0)
+ */
+@Slf4j
+public class SearchLoadGenerator {
+    private static final String INPUT_FILE = "throughput/war_and_peace.txt";
+    private static final String WORDS_FILE = "throughput/search_words.csv";
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final WordDistribution distribution;
+
+    public SearchLoadGenerator(int concurrency, Duration warmup, Duration duration, WordDistribution distribution) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.distribution = distribution;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // JDK HttpServer는 기본적으로 TCP_NODELAY를 끄기 때문에 작은 응답이 Nagle + Delayed ACK로 수십 ms씩 지연됨
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        String bookText = new String(Files.readAllBytes(Paths.get(new ClassPathResource(INPUT_FILE).getURI())));
+        List<String> words = Files.readAllLines(Paths.get(new ClassPathResource(WORDS_FILE).getURI())).stream()
+                .map(String::trim)
+                .filter(word -> !word.isEmpty())
+                .toList();
+
+        SearchMode searchMode = SearchMode.valueOf(System.getProperty("load.search", "LINEAR").toUpperCase());
+        String[] executorModes = System.getProperty("load.executors", "FIXED,CACHED,WORK_STEALING,VIRTUAL").split(",");
+        boolean zipf = System.getProperty("load.distribution", "ZIPF").equalsIgnoreCase("ZIPF");
+        double exponent = Double.parseDouble(System.getProperty("load.zipf.exponent", "1.0"));
+
+        SearchLoadGenerator generator = new SearchLoadGenerator(
+                Integer.getInteger("load.concurrency", 64),
+                Duration.ofSeconds(Integer.getInteger("load.warmup", 5)),
+                Duration.ofSeconds(Integer.getInteger("load.duration", 15)),
+                zipf ? WordDistribution.zipf(words, exponent) : WordDistribution.uniform(words)
+        );
+
+        WordCounter wordCounter = searchMode.createCounter(bookText);
+        List<Result> results = new ArrayList<>();
+
+        for (String executorMode : executorModes) {
+            ExecutorMode mode = ExecutorMode.valueOf(executorMode.trim().toUpperCase());
+            HttpServer server = HTTPThroughputServer.startServer(wordCounter, 0, mode);
+
+            try {
+                Result result = generator.run(mode.name(), server.getAddress().getPort());
+                results.add(result);
+                log.info("{}", result);
+            } finally {
+                server.stop(0);
+                ((ExecutorService) server.getExecutor()).shutdownNow();
+            }
+        }
+
+        log.info("===== Search={}, Concurrency={}, Distribution={} =====", searchMode, generator.concurrency, zipf ? "ZIPF" : "UNIFORM");
+        results.forEach(result -> log.info("{}", result));
+    }
+
+    /* localhost:port 서버에 워밍업 후 측정 구간 동안 부하를 주고 결과를 반환 */
+    public Result run(String name, int port) throws InterruptedException {
+        // 요청마다 URI를 파싱하지 않도록 단어별 URI를 미리 만들어둠 (공백 등은 %XX로 인코딩)
+        URI[] uris = distribution.words.stream()
+                .map(word -> URLEncoder.encode(word, StandardCharsets.UTF_8).replace("+", "%20"))
+                .map(word -> URI.create("http://127.0.0.1:" + port + "/search?word=" + word))
+                .toArray(URI[]::new);
+        LatencyHistogram[] histograms = new LatencyHistogram[concurrency];
+        long[] errors = new long[concurrency];
+
+        // HttpClient 내부 작업은 기본 Executor(플랫폼 스레드)에 맡김, 가상 스레드 Executor를 주면 내부 synchronized 구간에서
+        // 캐리어 스레드가 고정(Pinning)되어 코어가 적은 환경에서 요청이 멈출 수 있음
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long measureEnd = measureStart + duration.toNanos();
+            List<Thread> workers = new ArrayList<>();
+
+            for (int i = 0; i < concurrency; i++) {
+                final int workerId = i;
+                histograms[i] = new LatencyHistogram();
+
+                workers.add(Thread.ofVirtual().start(() ->
+                        errors[workerId] = runWorker(client, uris, measureStart, measureEnd, histograms[workerId])));
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) merged.add(histogram);
+
+        return new Result(name, merged, Arrays.stream(errors).sum(), duration);
+    }
+
+    /* 한 가상 스레드의 Closed-Loop, 측정 구간에 시작한 요청만 기록하고 실패 횟수를 반환 */
+    private long runWorker(HttpClient client, URI[] uris, long measureStart, long measureEnd, LatencyHistogram histogram) {
+        long errors = 0;
+
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= measureEnd) break;
+
+            HttpRequest request = HttpRequest.newBuilder(uris[distribution.nextIndex()]).GET().build();
+            boolean success;
+
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                success = response.statusCode() == 200;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            long end = System.nanoTime();
+
+            if (start >= measureStart) {
+                if (success) histogram.record(end - start);
+                else errors++;
+            }
+        }
+
+        return errors;
+    }
+
+    /* 측정 결과, 지연시간은 ns로 기록하고 µs로 출력 */
+    public record Result(String name, LatencyHistogram histogram, long errors, Duration duration) {
+
+        public double throughput() {
+            return histogram.getTotalCount() / (duration.toNanos() / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %.0f req/s, requests=%d, errors=%d, mean=%.0fµs, p50=%dµs, p90=%dµs, p99=%dµs, p99.9=%dµs, max=%dµs",
+                    name, throughput(), histogram.getTotalCount(), errors, histogram.getMean() / 1_000,
+                    histogram.valueAtPercentile(50) / 1_000, histogram.valueAtPercentile(90) / 1_000,
+                    histogram.valueAtPercentile(99) / 1_000, histogram.valueAtPercentile(99.9) / 1_000,
+                    histogram.getMaxValue() / 1_000);
+        }
+    }
+
+    /**
+     * 검색어 선택 분포
+     * UNIFORM : 모든 단어를 같은 확률로 선택
+     * ZIPF : k번째 단어를 1 / k^exponent 에 비례하는 확률로 선택 (소수의 인기 단어에 요청이 몰리는 실제 트래픽 모사)
+     * @field cumulative : 누적 확률, 0 ~ 1 난수를 이진 탐색해서 단어를 고름
+     */
+    public static class WordDistribution {
+        private final List<String> words;
+        private final double[] cumulative;
+
+        private WordDistribution(List<String> words, double[] cumulative) {
+            this.words = words;
+            this.cumulative = cumulative;
+        }
+
+        public static WordDistribution uniform(List<String> words) {
+            return new WordDistribution(words, null);
+        }
+
+        public static WordDistribution zipf(List<String> words, double exponent) {
+            double[] cumulative = new double[words.size()];
+            double sum = 0;
+
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+
+            return new WordDistribution(words, cumulative);
+        }
+
+        /* 다음 검색어의 인덱스 */
+        public int nextIndex() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            if (cumulative == null) return random.nextInt(words.size());
+
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            if (index < 0) index = -index - 1;
+
+            return Math.min(index, words.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.thread.throughtput;
+
+import java.util.Arrays;
+
+/**
+ * 서버 시작 시 책의 Suffix Array(모든 접미사를 사전순으로 정렬한 시작 위치 배열)를 만들어두는 방식
+ * word로 시작하는 접미사들은 Suffix Array에서 연속된 구간을 이루기 때문에, 그 구간의 양 끝을 이진 탐색으로 찾으면
+ * 구간의 길이가 곧 부분 문자열 등장 횟수 (겹치는 등장 포함, LinearScanCounter와 같은 결과)
+ * 요청 1건은 O(단어 길이 * log(책 크기))이고, 배열은 생성 이후 읽기만 하므로 Lock 없이 코어 수만큼 확장됨
+ * @field text : 책의 문자 배열
+ * @field suffixArray : 사전순으로 정렬된 접미사들의 시작 위치
+ */
+public class SuffixArrayCounter implements WordCounter {
+    private static final int ALPHABET_SIZE = Character.MAX_VALUE + 1;
+
+    private final char[] text;
+    private final int[] suffixArray;
+
+    public SuffixArrayCounter(String text) {
+        this.text = text.toCharArray();
+        this.suffixArray = buildSuffixArray(this.text);
+    }
+
+    @Override
+    public long countWord(String word) {
+        if (word.isEmpty()) return 0;
+
+        int lower = lowerBound(word, false);
+        int upper = lowerBound(word, true);
+
+        return upper - lower;
+    }
+
+    /**
+     * word를 접두사로 가지는 접미사 구간의 경계를 이진 탐색
+     * @param afterPrefix : false면 word 이상인 첫 위치, true면 word를 접두사로 가지는 접미사들이 끝난 다음 위치
+     */
+    private int lowerBound(String word, boolean afterPrefix) {
+        int low = 0;
+        int high = suffixArray.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compare = compareWithPrefix(suffixArray[middle], word);
+
+            if (compare < 0 || (afterPrefix && compare == 0)) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    /* position에서 시작하는 접미사의 앞 word.length() 글자와 word 비교, 접미사가 더 짧으면 더 작은 것으로 봄 */
+    private int compareWithPrefix(int position, String word) {
+        int length = word.length();
+
+        for (int i = 0; i < length; i++) {
+            if (position + i >= text.length) return -1;
+
+            int difference = text[position + i] - word.charAt(i);
+            if (difference != 0) return difference;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Prefix Doubling(Manber-Myers) + Counting Sort로 O(n log n)에 Suffix Array 생성
+     * k 단계에서는 각 접미사의 앞 2k 글자를 (앞 k 글자의 순위, 뒤 k 글자의 순위) 쌍으로 정렬하고,
+     * 모든 순위가 달라지면(= 모든 접미사가 구분되면) 종료
+     */
+    static int[] buildSuffixArray(char[] text) {
+        int n = text.length;
+        int[] suffixArray = new int[n];
+        if (n == 0) return suffixArray;
+
+        int[] rank = new int[n];
+        int[] nextRank = new int[n];
+        int[] bySecondKey = new int[n];
+        int[] count = new int[Math.max(ALPHABET_SIZE, n) + 1];
+
+        // 첫 글자 기준 Counting Sort
+        for (char c : text) count[c]++;
+        for (int i = 1; i < ALPHABET_SIZE; i++) count[i] += count[i - 1];
+        for (int i = n - 1; i >= 0; i--) suffixArray[--count[text[i]]] = i;
+
+        rank[suffixArray[0]] = 0;
+        for (int i = 1; i < n; i++) {
+            rank[suffixArray[i]] = rank[suffixArray[i - 1]] + (text[suffixArray[i]] != text[suffixArray[i - 1]] ? 1 : 0);
+        }
+
+        for (int k = 1; rank[suffixArray[n - 1]] < n - 1; k <<= 1) {
+            // 뒤 k 글자 기준 정렬 : 뒤 k 글자가 없는 접미사가 가장 앞, 나머지는 이전 단계의 순서를 그대로 이용
+            int p = 0;
+            for (int i = n - k; i < n; i++) bySecondKey[p++] = i;
+            for (int i = 0; i < n; i++) {
+                if (suffixArray[i] >= k) bySecondKey[p++] = suffixArray[i] - k;
+            }
+
+            // 앞 k 글자의 순위 기준 Stable Counting Sort
+            int classes = rank[suffixArray[n - 1]] + 1;
+            Arrays.fill(count, 0, classes, 0);
+            for (int i = 0; i < n; i++) count[rank[i]]++;
+            for (int i = 1; i < classes; i++) count[i] += count[i - 1];
+            for (int i = n - 1; i >= 0; i--) suffixArray[--count[rank[bySecondKey[i]]]] = bySecondKey[i];
+
+            // (앞 순위, 뒤 순위) 쌍이 바뀔 때마다 새 순위 부여
+            nextRank[suffixArray[0]] = 0;
+            for (int i = 1; i < n; i++) {
+                int previous = suffixArray[i - 1];
+                int current = suffixArray[i];
+                boolean same = rank[previous] == rank[current]
+                        && (previous + k < n ? rank[previous + k] : -1) == (current + k < n ? rank[current + k] : -1);
+
+                nextRank[current] = nextRank[previous] + (same ? 0 : 1);
+            }
+
+            int[] swap = rank;
+            rank = nextRank;
+            nextRank = swap;
+        }
+
+        return suffixArray;
+    }
+}
@@ -0,0 +1,42 @@
+package com.thread.throughtput;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 서버 시작 시 책을 단어(Token) 단위로 한번 잘라서 단어 -> 등장 횟수 인덱스를 만들어두는 방식
+ * 요청 1건은 HashMap 조회 1번(O(단어 길이))으로 끝나고, 인덱스는 생성 이후 읽기만 하므로 Lock 없이 코어 수만큼 확장됨
+ * 부분 문자열이 아닌 단어 단위로 세기 때문에 "the"로 검색해도 "other"나 "then" 안의 the는 세지 않음 (대소문자는 구분)
+ * @field counts : 글자/숫자가 아닌 문자로 구분한 단어별 등장 횟수
+ */
+public class TokenIndexCounter implements WordCounter {
+    private final Map<String, Long> counts;
+
+    public TokenIndexCounter(String text) {
+        Map<String, Long> index = new HashMap<>();
+        int length = text.length();
+        int start = -1;
+
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                index.merge(text.substring(start, i), 1L, Long::sum);
+                start = -1;
+            }
+        }
+
+        this.counts = Map.copyOf(index);
+    }
+
+    @Override
+    public long countWord(String word) {
+        return counts.getOrDefault(word, 0L);
+    }
+
+    public int getDistinctWords() {
+        return counts.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.thread.throughtput;
+
+import java.util.List;
+
+/* 텍스트에서 단어가 나오는 횟수를 세는 방식의 추상화, 구현체는 생성 이후 읽기 전용이라 여러 스레드가 동시에 호출해도 안전해야 함 */
+public interface WordCounter {
+
+    long countWord(String word);
+
+    /* 여러 단어를 한번에 세서 입력 순서대로 반환, 기본은 단어마다 countWord() 호출 (텍스트를 스캔하는 구현체는 1회 순회로 재정의) */
+    default long[] countAll(List<String> words) {
+        long[] counts = new long[words.size()];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = countWord(words.get(i));
+        }
+
+        return counts;
+    }
+}
@@ -0,0 +1,112 @@
+package com.thread.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBandProcessorTest {
+    private static final int WIDTH = 7;
+    private static final int HEIGHT = 11;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "P",
+            "P3\n2 2\n255\n",
+            "P6\n0 4\n255\n",
+            "P6\n4 0\n255\n",
+            "P6\n2 1\n0\n",
+            "P6\n2 1\n65535\n",
+            "P6\n2 1\n127\n",
+            "P6\n\n",
+            "P6\n2\n",
+            "P6\n99999999999 1\n255\n",
+            "P6\n2 1\n255"
+    })
+    void rejectsBadHeader(String header) throws IOException {
+        Path file = directory.resolve("bad.ppm");
+        Files.write(file, header.getBytes(StandardCharsets.US_ASCII));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> MappedBandProcessor.PpmHeader.read(channel));
+        }
+    }
+
+    @Test
+    void readsHeaderWithComments() throws IOException {
+        String header = "P6\n# comment\n3 2 # another\n255\n";
+        Path file = directory.resolve("ok.ppm");
+        Files.write(file, (header + "x".repeat(3 * 2 * 3)).getBytes(StandardCharsets.US_ASCII));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedBandProcessor.PpmHeader parsed = MappedBandProcessor.PpmHeader.read(channel);
+
+            assertEquals(3, parsed.width());
+            assertEquals(2, parsed.height());
+            assertEquals(header.length(), parsed.dataOffset());
+        }
+    }
+
+    /* Band 경계가 여러번 생기도록 예산을 3행 분량으로 잡고, 모든 픽셀에 필터가 정확히 한번 적용됐는지 확인 */
+    @Test
+    void appliesFilterToEveryPixelAcrossBands() throws Exception {
+        BufferedImage image = gradient();
+        Path input = directory.resolve("in.ppm");
+        Path output = directory.resolve("out.ppm");
+        MappedBandProcessor.writePpm(image, input);
+
+        PixelFilter invert = argb -> argb ^ 0x00FFFFFF;
+        new MappedBandProcessor(WIDTH * 3 * 2 * 3, 4).process(input, output, invert);
+
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) expected.setRGB(x, y, invert.apply(image.getRGB(x, y)));
+        }
+        Path expectedFile = directory.resolve("expected.ppm");
+        MappedBandProcessor.writePpm(expected, expectedFile);
+
+        assertArrayEquals(Files.readAllBytes(expectedFile), Files.readAllBytes(output));
+    }
+
+    /* 행 구간 작업에서 던진 예외가 Future에 묻히지 않고 process()까지 올라와야 함 */
+    @Test
+    void propagatesFilterFailure() throws Exception {
+        Path input = directory.resolve("in.ppm");
+        MappedBandProcessor.writePpm(gradient(), input);
+
+        PixelFilter failing = argb -> {
+            throw new IllegalStateException("filter failed");
+        };
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> new MappedBandProcessor(1024, 4).process(input, directory.resolve("out.ppm"), failing));
+        assertTrue(thrown.getMessage().contains("filter failed")); // ForkJoinPool은 원래 예외를 cause로 감싼 같은 타입의 예외를 던질 수 있음
+    }
+
+    private static BufferedImage gradient() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) image.setRGB(x, y, (x * 30) << 16 | (y * 20) << 8 | (x + y));
+        }
+
+        return image;
+    }
+}
@@ -0,0 +1,106 @@
+package com.thread.lockfree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EliminationBackoffStackTest {
+
+    @Test
+    void popsInLifoOrder() {
+        EliminationBackoffStack<Integer> stack = new EliminationBackoffStack<>();
+        assertNull(stack.pop());
+
+        for (int i = 0; i < 5; i++) stack.push(i);
+        for (int i = 4; i >= 0; i--) assertEquals(Integer.valueOf(i), stack.pop());
+
+        assertNull(stack.pop());
+    }
+
+    /* push / pop이 동시에 몰려서 Elimination으로 주고받더라도 모든 값이 정확히 한번씩 나와야 함 */
+    @Test
+    void concurrentPushPopConservesElements() throws InterruptedException {
+        EliminationBackoffStack<Integer> stack = new EliminationBackoffStack<>();
+        int threads = 8;
+        int perThread = 20_000;
+        AtomicInteger[] seen = new AtomicInteger[threads * perThread];
+        for (int i = 0; i < seen.length; i++) seen[i] = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        // 각 스레드가 자기 값을 push한 뒤 바로 pop하기를 반복하므로 push와 pop이 계속 충돌함
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < perThread; i++) {
+                    stack.push(first + i);
+                    if ((i & 1) == 0) {
+                        Integer value = stack.pop();
+                        if (value != null) seen[value].incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        Integer value;
+        while ((value = stack.pop()) != null) seen[value].incrementAndGet();
+
+        for (int i = 0; i < seen.length; i++) {
+            assertEquals(1, seen[i].get(), "value " + i);
+        }
+    }
+
+    /* 한 스레드가 push한 값은 그 스레드 안에서는 나중에 push한 값보다 늦게 나와야 함 (Elimination도 LIFO 의미를 깨지 않음) */
+    @Test
+    void drainedValuesOfEachThreadAreInReverseOrder() throws InterruptedException {
+        EliminationBackoffStack<long[]> stack = new EliminationBackoffStack<>();
+        int threads = 4;
+        int perThread = 10_000;
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) stack.push(new long[]{id, i});
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers) worker.join();
+
+        long[] last = new long[threads];
+        Arrays.fill(last, perThread);
+        int count = 0;
+        long[] pair;
+
+        while ((pair = stack.pop()) != null) {
+            int id = (int) pair[0];
+            assertTrue(pair[1] < last[id], "thread " + id + " : " + pair[1] + " after " + last[id]);
+            last[id] = pair[1];
+            count++;
+        }
+
+        assertEquals(threads * perThread, count);
+    }
+}
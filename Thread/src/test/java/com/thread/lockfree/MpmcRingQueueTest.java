@@ -0,0 +1,137 @@
+package com.thread.lockfree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MpmcRingQueueTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(2, new MpmcRingQueue<Integer>(2).capacity());
+        assertEquals(8, new MpmcRingQueue<Integer>(5).capacity());
+        assertEquals(8, new MpmcRingQueue<Integer>(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingQueue<Integer>(1));
+    }
+
+    /* 여러 바퀴를 돌면서 가득 참 / 비어있음 판정과 FIFO 순서가 유지되어야 함 */
+    @Test
+    void offerAndPollWrapAroundInFifoOrder() {
+        MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(4);
+        int next = 0;
+        int expected = 0;
+
+        for (int round = 0; round < 10; round++) {
+            while (queue.offer(next)) next++;
+            assertEquals(4, queue.size());
+            assertFalse(queue.offer(-1));
+
+            for (int i = 0; i < 3; i++) assertEquals(Integer.valueOf(expected++), queue.poll());
+        }
+
+        Integer value;
+        while ((value = queue.poll()) != null) assertEquals(Integer.valueOf(expected++), value);
+
+        assertEquals(next, expected);
+        assertNull(queue.poll());
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+    }
+
+    /* 작은 큐에서 Producer / Consumer가 모두 put() / take()에서 블럭과 깨우기를 반복해도 모든 값이 정확히 한번씩 나와야 함 */
+    @Test
+    void concurrentPutTakeConservesElements() throws InterruptedException {
+        MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(4);
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        int total = producers * perProducer;
+        AtomicInteger[] seen = new AtomicInteger[total];
+        for (int i = 0; i < total; i++) seen[i] = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) queue.put(first + i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        // 각 Consumer가 정확히 total / consumers개를 가져가므로 종료 신호 없이 끝남
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < total / consumers; i++) seen[queue.take()].incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen[i].get(), "value " + i);
+        }
+        assertNull(queue.poll());
+    }
+
+    /* Producer 한 명이 넣은 값은 Consumer가 여러명이어도 그 Producer가 넣은 순서를 앞지르지 않아야 함 (한 Consumer 기준) */
+    @Test
+    void valuesOfOneProducerAreTakenInOrderByEachConsumer() throws InterruptedException {
+        MpmcRingQueue<long[]> queue = new MpmcRingQueue<>(16);
+        int producers = 3;
+        int consumers = 2;
+        int perProducer = 20_000;
+        AtomicInteger violations = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) queue.put(new long[]{id, i});
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                long[] last = new long[producers];
+                Arrays.fill(last, -1);
+
+                try {
+                    for (int i = 0; i < producers * perProducer / consumers; i++) {
+                        long[] pair = queue.take();
+                        int id = (int) pair[0];
+                        if (pair[1] <= last[id]) violations.incrementAndGet();
+                        last[id] = pair[1];
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(0, violations.get());
+        assertEquals(0, queue.size());
+    }
+}
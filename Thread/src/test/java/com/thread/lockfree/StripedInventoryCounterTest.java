@@ -0,0 +1,96 @@
+package com.thread.lockfree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedInventoryCounterTest {
+
+    @Test
+    void roundsStripesUpToPowerOfTwo() {
+        assertEquals(1, new StripedInventoryCounter(1).getStripes());
+        assertEquals(8, new StripedInventoryCounter(5).getStripes());
+        assertThrows(IllegalArgumentException.class, () -> new StripedInventoryCounter(4).tryReserve(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedInventoryCounter(4).release(-1));
+    }
+
+    /* 다른 스레드의 칸에 있는 재고도 빌려와서 예약할 수 있고, 모자라면 아무것도 차감하지 않아야 함 */
+    @Test
+    void reserveBorrowsFromOtherStripesAndFailsWithoutSideEffects() throws InterruptedException {
+        StripedInventoryCounter counter = new StripedInventoryCounter(8);
+
+        for (int i = 0; i < 4; i++) {
+            Thread releaser = new Thread(() -> counter.release(3));
+            releaser.start();
+            releaser.join();
+        }
+        assertEquals(12, counter.getItems());
+
+        assertFalse(counter.tryReserve(13));
+        assertEquals(12, counter.getItems());
+
+        assertTrue(counter.tryReserve(12));
+        assertEquals(0, counter.getItems());
+        assertFalse(counter.tryReserve(1));
+    }
+
+    /* 재고보다 훨씬 많은 예약이 동시에 몰려도 성공한 예약의 합이 재고를 넘지 않고, 남은 재고 + 판매량이 처음 재고와 같아야 함 */
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        int stock = 10_000;
+        int threads = 8;
+        StripedInventoryCounter counter = new StripedInventoryCounter(8);
+        counter.release(stock);
+
+        AtomicLong sold = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> buyers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread buyer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long mine = 0;
+
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                for (int i = 0; i < 5_000; i++) {
+                    int n = 1 + random.nextInt(3);
+                    if (!counter.tryReserve(n)) continue;
+
+                    // 가끔 예약을 취소해서 재고가 여러 칸으로 흩어지게 함
+                    if (random.nextInt(10) == 0) counter.release(n);
+                    else mine += n;
+                }
+
+                sold.addAndGet(mine);
+            });
+            buyers.add(buyer);
+            buyer.start();
+        }
+
+        start.countDown();
+        for (Thread buyer : buyers) buyer.join();
+
+        long remaining = counter.getItems();
+        assertTrue(sold.get() <= stock, "sold " + sold.get());
+        assertTrue(remaining >= 0, "remaining " + remaining);
+        assertEquals(stock, sold.get() + remaining);
+
+        // 경합이 끝난 뒤에는 흩어진 재고를 한번에 모두 예약할 수 있어야 함
+        if (remaining > 0) assertTrue(counter.tryReserve((int) remaining));
+        assertEquals(0, counter.getItems());
+    }
+}
@@ -0,0 +1,127 @@
+package com.thread.reentrantlock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class AsyncInventoryDatabaseTest {
+    private static final int HIGHEST_PRICE = 100;
+
+    @Test
+    void appliesSubmittedMutationsInOrderPerWriter() {
+        try (AsyncInventoryDatabase db = new AsyncInventoryDatabase(HIGHEST_PRICE, 4)) {
+            assertFalse(db.submitRemove(3).join());
+            assertTrue(db.submitAdd(3).join());
+            db.addItem(3);
+            db.removeItem(3);
+
+            assertEquals(1, db.getNumberOfItemInPriceRange(3, 3));
+            assertEquals(1, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+        }
+    }
+
+    /* 큐보다 훨씬 많은 변경을 여러 Writer가 동시에 넣어도 Backpressure로 기다릴 뿐 하나도 잃지 않아야 함 */
+    @Test
+    void concurrentWritersThroughSmallQueueLoseNothing() throws InterruptedException {
+        int writers = 8;
+        int perWriter = 5_000;
+
+        try (AsyncInventoryDatabase db = new AsyncInventoryDatabase(HIGHEST_PRICE, 16)) {
+            runWriters(writers, index -> {
+                for (int i = 0; i < perWriter; i++) db.submitAdd((index + i) % (HIGHEST_PRICE + 1));
+            });
+
+            db.addItem(0); // 적용 스레드는 꺼낸 순서대로 적용하므로, 이후에 넣은 변경이 완료되면 앞선 변경도 모두 적용된 것
+            assertEquals(writers * perWriter + 1, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+        }
+    }
+
+    /* close()와 겹친 제출 : 예외 없이 받은 Future는 모두 완료되어야 하고, 성공으로 완료된 추가만 재고에 반영되어야 함 */
+    @Test
+    void submitsRacingCloseAreCompletedEitherWay() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AsyncInventoryDatabase db = new AsyncInventoryDatabase(HIGHEST_PRICE, 8);
+            List<List<CompletableFuture<Boolean>>> accepted = new ArrayList<>();
+            CountDownLatch started = new CountDownLatch(4);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int w = 0; w < 4; w++) {
+                List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+                accepted.add(futures);
+
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    try {
+                        while (true) futures.add(db.submitAdd(1));
+                    } catch (IllegalStateException closed) {
+                        // close() 이후의 제출
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            started.await();
+            db.close();
+            for (Thread thread : threads) thread.join();
+
+            int added = 0;
+            for (List<CompletableFuture<Boolean>> futures : accepted) {
+                for (CompletableFuture<Boolean> future : futures) {
+                    try {
+                        if (future.get(5, TimeUnit.SECONDS)) added++;
+                    } catch (TimeoutException e) {
+                        fail("close() 이후 완료되지 않은 Future");
+                    } catch (Exception e) {
+                        assertTrue(e.getCause() instanceof IllegalStateException);
+                    }
+                }
+            }
+
+            assertEquals(added, db.getNumberOfItemInPriceRange(1, 1));
+        }
+    }
+
+    @Test
+    void submitAfterCloseThrows() {
+        AsyncInventoryDatabase db = new AsyncInventoryDatabase(HIGHEST_PRICE, 4);
+        db.close();
+        db.close();
+
+        assertThrows(IllegalStateException.class, () -> db.submitAdd(1));
+        assertThrows(IllegalStateException.class, () -> db.addItem(1));
+    }
+
+    @Test
+    void rejectsPriceOutOfRangeAtSubmit() {
+        try (AsyncInventoryDatabase db = new AsyncInventoryDatabase(HIGHEST_PRICE, 4)) {
+            assertThrows(IllegalArgumentException.class, () -> db.submitAdd(HIGHEST_PRICE + 1));
+            assertThrows(IllegalArgumentException.class, () -> db.submitRemove(-1));
+        }
+    }
+
+    private static void runWriters(int writers, IntConsumer body) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < writers; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> body.accept(index));
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) thread.join();
+    }
+}
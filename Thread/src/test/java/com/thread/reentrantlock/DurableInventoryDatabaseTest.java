@@ -0,0 +1,177 @@
+package com.thread.reentrantlock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DurableInventoryDatabaseTest {
+    private static final int HIGHEST_PRICE = 100;
+    private static final byte ADD = 1;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenReplaysWal() throws IOException {
+        writeItems(10);
+
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            assertEquals(10, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+            assertEquals(1, db.getNumberOfItemInPriceRange(3, 3));
+        }
+    }
+
+    @Test
+    void removeIsReplayedAndNeverGoesNegative() throws IOException {
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            db.addItem(5);
+            db.removeItem(5);
+            db.removeItem(5);
+            db.addItem(7);
+        }
+
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            assertEquals(0, db.getNumberOfItemInPriceRange(5, 5));
+            assertEquals(1, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+        }
+    }
+
+    /* count가 int 곱셈을 넘치게 하는 쓰레기 헤더 : LSN 누락이 아니라 잘린 꼬리로 보고 잘라내야 함 */
+    @Test
+    void tornHeaderWithHugeCountIsTruncated() throws IOException {
+        writeItems(10);
+        Path wal = walSegment();
+        long validSize = Files.size(wal);
+
+        append(wal, ByteBuffer.allocate(12).putLong(8_603_657_889_541_918_976L).putInt(500_000_000).flip());
+
+        assertRecoversTo(10, wal, validSize);
+    }
+
+    /* 헤더의 일부만 기록된 경우 */
+    @Test
+    void partialHeaderIsTruncated() throws IOException {
+        writeItems(10);
+        Path wal = walSegment();
+        long validSize = Files.size(wal);
+
+        append(wal, ByteBuffer.allocate(12).putLong(11).putInt(1).flip().limit(7));
+
+        assertRecoversTo(10, wal, validSize);
+    }
+
+    /* 헤더는 온전한데 레코드 일부와 CRC가 없는 경우 */
+    @Test
+    void tornBodyIsTruncated() throws IOException {
+        writeItems(10);
+        Path wal = walSegment();
+        long validSize = Files.size(wal);
+
+        ByteBuffer torn = ByteBuffer.allocate(12 + 2 * 5);
+        torn.putLong(11).putInt(3);
+        torn.put(ADD).putInt(1).put(ADD).putInt(2);
+        append(wal, torn.flip());
+
+        assertRecoversTo(10, wal, validSize);
+    }
+
+    /* 길이는 맞지만 CRC가 틀린 배치는 LSN이 비어있어도 유효한 데이터의 끝으로 취급 */
+    @Test
+    void garbageBatchWithLsnGapIsTruncated() throws IOException {
+        writeItems(10);
+        Path wal = walSegment();
+        long validSize = Files.size(wal);
+
+        ByteBuffer batch = batch(1_000, 1);
+        batch.putInt(batch.limit() - 4, 0xDEADBEEF);
+        append(wal, batch);
+
+        assertRecoversTo(10, wal, validSize);
+    }
+
+    /* CRC까지 맞는 배치 앞에서 LSN이 비어있으면 WAL 파일이 사라진 것이므로 잘라내지 않고 실패 */
+    @Test
+    void validBatchWithLsnGapFailsOpen() throws IOException {
+        writeItems(10);
+        Path wal = walSegment();
+        append(wal, batch(20, 1));
+        long size = Files.size(wal);
+
+        assertThrows(IOException.class, () -> DurableInventoryDatabase.open(directory, HIGHEST_PRICE));
+        assertEquals(size, Files.size(wal));
+    }
+
+    /* 다음 LSN으로 이어지는 온전한 배치는 그대로 재생 */
+    @Test
+    void appendedValidBatchIsReplayed() throws IOException {
+        writeItems(10);
+        append(walSegment(), batch(11, 3));
+
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            assertEquals(13, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+        }
+    }
+
+    /* 잘라낸 뒤에는 정상적으로 이어서 쓰고 다시 복구할 수 있어야 함 */
+    private void assertRecoversTo(int expected, Path wal, long validSize) throws IOException {
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            assertEquals(expected, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+            assertEquals(validSize, Files.size(wal));
+            db.addItem(42);
+        }
+
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            assertEquals(expected + 1, db.getNumberOfItemInPriceRange(0, HIGHEST_PRICE));
+            assertEquals(1, db.getNumberOfItemInPriceRange(42, 42));
+        }
+    }
+
+    /* 가격 0 ~ n-1에 하나씩 추가 (LSN 1 ~ n) */
+    private void writeItems(int n) throws IOException {
+        try (DurableInventoryDatabase db = DurableInventoryDatabase.open(directory, HIGHEST_PRICE)) {
+            for (int price = 0; price < n; price++) db.addItem(price);
+        }
+    }
+
+    private Path walSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().startsWith("wal-")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    /* DurableInventoryDatabase와 같은 형식의 배치 : [firstLsn][count][ADD + 가격 50 ...][CRC32] */
+    private static ByteBuffer batch(long firstLsn, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(12 + count * 5 + 4);
+        buffer.putLong(firstLsn).putInt(count);
+        for (int i = 0; i < count; i++) buffer.put(ADD).putInt(50);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+
+        return buffer.flip();
+    }
+
+    private static void append(Path file, ByteBuffer bytes) throws IOException {
+        Files.write(file, toArray(bytes), StandardOpenOption.APPEND);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
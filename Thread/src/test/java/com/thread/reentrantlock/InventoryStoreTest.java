@@ -0,0 +1,169 @@
+package com.thread.reentrantlock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* 모든 InventoryStore 구현체가 기준 구현인 InventoryApplication.InventoryDatabase와 같은 결과를 내는지 확인 */
+class InventoryStoreTest {
+    private static final int HIGHEST_PRICE = 50;
+
+    @TempDir
+    Path directory;
+
+    private final List<Closeable> opened = new ArrayList<>();
+
+    static Stream<Arguments> stores() {
+        return Stream.of(
+                Arguments.of("Stamped", (StoreFactory) directory -> new StampedInventoryDatabase(HIGHEST_PRICE)),
+                Arguments.of("Snapshot", (StoreFactory) directory -> new SnapshotInventoryDatabase(HIGHEST_PRICE)),
+                Arguments.of("Fenwick", (StoreFactory) directory -> new FenwickInventoryDatabase(HIGHEST_PRICE)),
+                // 나누어 떨어지지 않는 Shard 수와 가격 수보다 많은 Shard 수까지
+                Arguments.of("Sharded-1", (StoreFactory) directory -> new ShardedInventoryDatabase(HIGHEST_PRICE, 1)),
+                Arguments.of("Sharded-7", (StoreFactory) directory -> new ShardedInventoryDatabase(HIGHEST_PRICE, 7)),
+                Arguments.of("Sharded-64", (StoreFactory) directory -> new ShardedInventoryDatabase(HIGHEST_PRICE, 64)),
+                Arguments.of("Durable", (StoreFactory) directory -> DurableInventoryDatabase.open(directory, HIGHEST_PRICE)),
+                Arguments.of("Async", (StoreFactory) directory -> new AsyncInventoryDatabase(HIGHEST_PRICE, 16))
+        );
+    }
+
+    /* 같은 무작위 변경을 적용한 뒤 가격 범위 밖이나 하한 > 상한인 범위까지 포함해 모든 조회가 같아야 함 */
+    @ParameterizedTest
+    @MethodSource("stores")
+    void matchesReferenceOnRandomOperations(String name, StoreFactory factory) throws IOException {
+        InventoryStore reference = new InventoryApplication.InventoryDatabase();
+        InventoryStore store = open(factory);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            int price = random.nextInt(HIGHEST_PRICE + 1);
+
+            // 삭제를 자주 섞어서 재고가 0인 가격의 삭제도 충분히 나오게 함
+            if (random.nextInt(3) == 0) {
+                reference.removeItem(price);
+                store.removeItem(price);
+            } else {
+                reference.addItem(price);
+                store.addItem(price);
+            }
+
+            if (i % 100 == 0) assertSameRanges(name, reference, store);
+        }
+
+        assertSameRanges(name, reference, store);
+    }
+
+    /* Writer마다 자기가 추가한 아이템만 삭제하므로 최종 상태는 실행 순서와 상관없이 정해짐 */
+    @ParameterizedTest
+    @MethodSource("stores")
+    void concurrentWritersMatchSequentialResult(String name, StoreFactory factory) throws IOException, InterruptedException {
+        InventoryStore store = open(factory);
+        int writers = 4;
+        int[][] added = new int[writers][500];
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            Random random = new Random(w);
+            for (int i = 0; i < added[w].length; i++) added[w][i] = random.nextInt(HIGHEST_PRICE + 1);
+        }
+
+        for (int w = 0; w < writers; w++) {
+            int[] prices = added[w];
+            Thread thread = new Thread(() -> {
+                for (int price : prices) store.addItem(price);
+                for (int i = 0; i < prices.length; i += 2) store.removeItem(prices[i]);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 조회는 Writer와 동시에 돌면서 범위 밖으로 나가지 않는지만 확인
+        for (int i = 0; i < 1_000; i++) {
+            int count = store.getNumberOfItemInPriceRange(0, HIGHEST_PRICE);
+            assertTrue(count >= 0 && count <= writers * 500, name + " : " + count);
+        }
+
+        for (Thread thread : threads) thread.join();
+
+        InventoryStore reference = new InventoryApplication.InventoryDatabase();
+        for (int[] prices : added) {
+            for (int price : prices) reference.addItem(price);
+            for (int i = 0; i < prices.length; i += 2) reference.removeItem(prices[i]);
+        }
+
+        assertSameRanges(name, reference, store);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void rejectsPriceOutOfRange(String name, StoreFactory factory) throws IOException {
+        InventoryStore store = open(factory);
+
+        assertThrows(IllegalArgumentException.class, () -> store.addItem(-1), name);
+        assertThrows(IllegalArgumentException.class, () -> store.addItem(HIGHEST_PRICE + 1), name);
+        assertThrows(IllegalArgumentException.class, () -> store.removeItem(HIGHEST_PRICE + 1), name);
+    }
+
+    /* 모든 Shard의 Lock을 잡는 조회도 Shard 경계에 걸친 범위에서 같은 값을 내야 함 */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 64})
+    void shardedConsistentRangeMatchesReference(int numberOfShards) {
+        InventoryStore reference = new InventoryApplication.InventoryDatabase();
+        ShardedInventoryDatabase store = new ShardedInventoryDatabase(HIGHEST_PRICE, numberOfShards);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 500; i++) {
+            int price = random.nextInt(HIGHEST_PRICE + 1);
+            reference.addItem(price);
+            store.addItem(price);
+        }
+
+        for (int lower = -2; lower <= HIGHEST_PRICE + 2; lower++) {
+            for (int upper = lower - 1; upper <= HIGHEST_PRICE + 2; upper++) {
+                assertEquals(reference.getNumberOfItemInPriceRange(lower, upper),
+                        store.getConsistentNumberOfItemInPriceRange(lower, upper), "[" + lower + ", " + upper + "]");
+            }
+        }
+    }
+
+    @AfterEach
+    void closeStores() throws IOException {
+        for (Closeable store : opened) store.close();
+    }
+
+    private InventoryStore open(StoreFactory factory) throws IOException {
+        InventoryStore store = factory.open(directory);
+        if (store instanceof Closeable closeable) opened.add(closeable);
+        return store;
+    }
+
+    private static void assertSameRanges(String name, InventoryStore reference, InventoryStore store) {
+        for (int lower = -2; lower <= HIGHEST_PRICE + 2; lower += 3) {
+            for (int upper = -2; upper <= HIGHEST_PRICE + 2; upper += 3) {
+                assertEquals(reference.getNumberOfItemInPriceRange(lower, upper),
+                        store.getNumberOfItemInPriceRange(lower, upper), name + " [" + lower + ", " + upper + "]");
+            }
+        }
+    }
+
+    /* WAL 디렉토리가 필요한 구현체가 있어서 Supplier 대신 사용 */
+    @FunctionalInterface
+    interface StoreFactory {
+        InventoryStore open(Path directory) throws IOException;
+    }
+}
@@ -0,0 +1,79 @@
+package com.thread.share;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingMetricsTest {
+
+    @Test
+    void smallValuesHaveOwnBucketAndNegativesGoToZero() {
+        assertEquals(0, StreamingMetrics.indexOf(-1));
+        assertEquals(0, StreamingMetrics.indexOf(Long.MIN_VALUE));
+
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, StreamingMetrics.indexOf(value));
+            assertEquals(value, StreamingMetrics.highestValueAt(value));
+        }
+    }
+
+    /* 버킷은 빈틈도 겹침도 없이 이어져야 함 : 버킷의 최대값은 그 버킷에, 최대값 + 1은 다음 버킷에 들어감 */
+    @Test
+    void bucketsAreContiguousUpToLongMaxValue() {
+        int last = StreamingMetrics.indexOf(Long.MAX_VALUE);
+        assertTrue(last < StreamingMetrics.BUCKET_COUNT, "last index " + last);
+        assertEquals(Long.MAX_VALUE, StreamingMetrics.highestValueAt(last));
+
+        for (int index = 0; index < last; index++) {
+            long highest = StreamingMetrics.highestValueAt(index);
+
+            assertEquals(index, StreamingMetrics.indexOf(highest), "highest of " + index);
+            assertEquals(index + 1, StreamingMetrics.indexOf(highest + 1), "after " + index);
+        }
+    }
+
+    /* 버킷의 최대값으로 보고해도 상대 오차는 1 / 16 이하 */
+    @Test
+    void reportedValueIsWithinRelativeError() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63)); // 0 ~ Long.MAX_VALUE의 모든 자릿수
+            long reported = StreamingMetrics.highestValueAt(StreamingMetrics.indexOf(value));
+
+            assertTrue(reported >= value, value + " -> " + reported);
+            assertTrue(reported - value <= value / 16, value + " -> " + reported);
+        }
+    }
+
+    @Test
+    void percentilesAreClampedToRecordedMax() throws InterruptedException {
+        StreamingMetrics metrics = new StreamingMetrics();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int value = 1; value <= 1_000; value++) metrics.record(value);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) thread.join();
+
+        StreamingMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(4_000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(1_000, snapshot.getMax());
+        assertEquals(1_000, snapshot.valueAtPercentile(100));
+        assertEquals(1, snapshot.valueAtPercentile(0));
+
+        long median = snapshot.valueAtPercentile(50);
+        assertTrue(median >= 500 && median <= 500 + 500 / 16, "median " + median);
+    }
+}
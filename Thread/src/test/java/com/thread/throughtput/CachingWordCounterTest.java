@@ -0,0 +1,87 @@
+package com.thread.throughtput;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingWordCounterTest {
+    private static final String TEXT = "the cat and the dog and the bird";
+
+    /* 캐시 미스만 모아서 delegate.countAll()을 1번 호출하고, 캐시 히트는 delegate까지 가지 않아야 함 */
+    @Test
+    void countAllSendsOnlyMissesToDelegateInOneCall() {
+        RecordingCounter delegate = new RecordingCounter(new LinearScanCounter(TEXT));
+        CachingWordCounter cache = new CachingWordCounter(delegate, 100, CachingWordCounter.EvictionPolicy.LRU);
+
+        assertEquals(3, cache.countWord("the"));
+
+        long[] counts = cache.countAll(List.of("the", "and", "cat", "and", "fish"));
+
+        assertArrayEquals(new long[]{3, 2, 1, 2, 0}, counts);
+        assertEquals(List.of(List.of("and", "cat", "fish")), delegate.batches);
+        assertEquals(List.of("the"), delegate.words);
+
+        CachingWordCounter.Stats stats = cache.getStats();
+        assertEquals(4, stats.misses());
+        assertEquals(1, stats.hits());
+    }
+
+    @Test
+    void countAllWithAllHitsDoesNotCallDelegate() {
+        RecordingCounter delegate = new RecordingCounter(new LinearScanCounter(TEXT));
+        CachingWordCounter cache = new CachingWordCounter(delegate, 100, CachingWordCounter.EvictionPolicy.LFU);
+
+        cache.countAll(List.of("dog", "bird"));
+        long[] counts = cache.countAll(List.of("bird", "dog"));
+
+        assertArrayEquals(new long[]{1, 1}, counts);
+        assertEquals(1, delegate.batches.size());
+    }
+
+    /* delegate가 실패하면 맡은 Entry를 모두 지워서 다음 요청이 다시 계산할 수 있어야 함 */
+    @Test
+    void failedBatchIsNotCached() {
+        RecordingCounter delegate = new RecordingCounter(new LinearScanCounter(TEXT));
+        CachingWordCounter cache = new CachingWordCounter(delegate, 100, CachingWordCounter.EvictionPolicy.LRU);
+
+        delegate.failNext = true;
+        assertThrows(IllegalStateException.class, () -> cache.countAll(List.of("cat", "dog")));
+        assertEquals(0, cache.getStats().size());
+
+        assertArrayEquals(new long[]{1, 1}, cache.countAll(List.of("cat", "dog")));
+    }
+
+    /* delegate 호출을 기록하는 WordCounter */
+    private static class RecordingCounter implements WordCounter {
+        private final WordCounter delegate;
+        private final List<String> words = new ArrayList<>();
+        private final List<List<String>> batches = new ArrayList<>();
+        private boolean failNext = false;
+
+        RecordingCounter(WordCounter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long countWord(String word) {
+            words.add(word);
+            return delegate.countWord(word);
+        }
+
+        @Override
+        public long[] countAll(List<String> batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("delegate failed");
+            }
+
+            batches.add(List.copyOf(batch));
+            return delegate.countAll(batch);
+        }
+    }
+}
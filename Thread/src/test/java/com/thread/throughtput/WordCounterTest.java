@@ -0,0 +1,127 @@
+package com.thread.throughtput;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* 부분 문자열을 세는 WordCounter 구현체가 기준 구현인 LinearScanCounter와 같은 결과를 내는지 확인 */
+class WordCounterTest {
+    private static final String TEXT = text();
+    private static final List<String> WORDS = words();
+
+    static Stream<Arguments> counters() {
+        return Stream.of(
+                Arguments.of("LinearScan", (Function<String, WordCounter>) LinearScanCounter::new),
+                Arguments.of("SuffixArray", (Function<String, WordCounter>) SuffixArrayCounter::new),
+                Arguments.of("Parallel", (Function<String, WordCounter>) ParallelSegmentCounter::new),
+                // 구간이 단어보다 짧아서 매치가 여러 구간 경계에 걸치는 경우까지
+                Arguments.of("Parallel-7", (Function<String, WordCounter>) text -> new ParallelSegmentCounter(text, 7)),
+                Arguments.of("Parallel-1", (Function<String, WordCounter>) text -> new ParallelSegmentCounter(text, 1))
+        );
+    }
+
+    /* 겹치는 매치("aa" in "aaaa"), 텍스트 끝에 걸친 매치, 없는 단어, 텍스트보다 긴 단어까지 */
+    @ParameterizedTest
+    @MethodSource("counters")
+    void countWordMatchesLinearScan(String name, Function<String, WordCounter> factory) {
+        WordCounter reference = new LinearScanCounter(TEXT);
+        WordCounter counter = factory.apply(TEXT);
+
+        for (String word : WORDS) {
+            assertEquals(reference.countWord(word), counter.countWord(word), name + " : \"" + word + "\"");
+        }
+    }
+
+    /* 1회 순회로 재정의한 countAll()도 단어별 countWord()와 같아야 함, 중복 단어와 빈 단어(0)도 입력 순서대로 */
+    @ParameterizedTest
+    @MethodSource("counters")
+    void countAllMatchesLinearScanPerWord(String name, Function<String, WordCounter> factory) {
+        WordCounter reference = new LinearScanCounter(TEXT);
+        List<String> batch = new ArrayList<>(WORDS);
+        batch.add(1, "");
+        batch.add(WORDS.get(0));
+        batch.add("aa");
+
+        long[] counts = factory.apply(TEXT).countAll(batch);
+
+        assertEquals(batch.size(), counts.length, name);
+        for (int i = 0; i < batch.size(); i++) {
+            long expected = batch.get(i).isEmpty() ? 0 : reference.countWord(batch.get(i));
+            assertEquals(expected, counts[i], name + " : \"" + batch.get(i) + "\"");
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("counters")
+    void emptyWordAndEmptyTextCountZero(String name, Function<String, WordCounter> factory) {
+        assertEquals(0, factory.apply(TEXT).countWord(""), name);
+        assertEquals(0, factory.apply("").countWord("a"), name);
+    }
+
+    /* TokenIndexCounter는 단어 단위로 세므로, LinearScanCounter의 매치 중 앞뒤가 글자/숫자가 아닌 것만 센 값과 같아야 함 */
+    @Test
+    void tokenIndexMatchesWholeWordLinearScan() {
+        TokenIndexCounter counter = new TokenIndexCounter(TEXT);
+
+        for (String word : WORDS) {
+            if (!isToken(word)) continue;
+            assertEquals(countWholeWords(TEXT, word), counter.countWord(word), "\"" + word + "\"");
+        }
+
+        assertEquals(2, new TokenIndexCounter("the other then, the").countWord("the"));
+        assertEquals(0, new TokenIndexCounter("the other").countWord("The"));
+    }
+
+    private static long countWholeWords(String text, String word) {
+        long count = 0;
+
+        for (int index = text.indexOf(word); index >= 0; index = text.indexOf(word, index + 1)) {
+            int end = index + word.length();
+            boolean startsAtBoundary = index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1));
+            boolean endsAtBoundary = end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+
+            if (startsAtBoundary && endsAtBoundary) count++;
+        }
+
+        return count;
+    }
+
+    private static boolean isToken(String word) {
+        return !word.isEmpty() && word.chars().allMatch(Character::isLetterOrDigit);
+    }
+
+    /* 문자 종류가 적어야 겹치는 매치와 반복되는 접미사가 많이 생김 */
+    private static String text() {
+        StringBuilder builder = new StringBuilder("the other then the theme, 가나가나가 aaaa ");
+        Random random = new Random(3);
+        String alphabet = "ab 가";
+
+        for (int i = 0; i < 3_000; i++) builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+        return builder.append("ab").toString();
+    }
+
+    private static List<String> words() {
+        Set<String> words = new LinkedHashSet<>(List.of("the", "aa", "aaaa", "가나가", "ab", "b", "zzz", "나다",
+                "the other then the theme", TEXT.substring(TEXT.length() - 5), TEXT + "a"));
+        Random random = new Random(5);
+
+        for (int i = 0; i < 300; i++) {
+            int from = random.nextInt(TEXT.length() - 6);
+            words.add(TEXT.substring(from, from + 1 + random.nextInt(6)));
+        }
+
+        return new ArrayList<>(words);
+    }
+}